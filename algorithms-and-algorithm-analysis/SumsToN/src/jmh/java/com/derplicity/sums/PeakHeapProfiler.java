@@ -0,0 +1,65 @@
+package com.derplicity.sums;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+/**
+ * JMH profiler reporting the peak heap use of each iteration, as the sum of the peak usage of
+ * every heap memory pool. Enable with {@code -prof com.derplicity.sums.PeakHeapProfiler}.
+ *
+ * @author Michael Kerl
+ */
+public class PeakHeapProfiler implements InternalProfiler {
+
+  @Override
+  public String getDescription() {
+    return "Peak heap use per iteration";
+  }
+
+  @Override
+  public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+    for (MemoryPoolMXBean pool : heapPools()) {
+      pool.resetPeakUsage();
+    }
+  }
+
+  @Override
+  public Collection<? extends Result> afterIteration(BenchmarkParams benchmarkParams,
+      IterationParams iterationParams, IterationResult result) {
+    long peak = 0;
+    for (MemoryPoolMXBean pool : heapPools()) {
+      peak += pool.getPeakUsage().getUsed();
+    }
+
+    List<Result> results = new ArrayList<>();
+    results.add(new ScalarResult("heap.peak", peak, "bytes", AggregationPolicy.MAX));
+    return results;
+  }
+
+  /**
+   * Get the memory pools which make up the heap.
+   *
+   * @return the heap memory pools.
+   */
+  private static List<MemoryPoolMXBean> heapPools() {
+    List<MemoryPoolMXBean> pools = new ArrayList<>();
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP) {
+        pools.add(pool);
+      }
+    }
+    return pools;
+  }
+
+}
@@ -0,0 +1,106 @@
+package com.derplicity.sums;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * JMH benchmarks comparing the ways SumsToN finds the sums of n: recursive against iterative,
+ * storing every sum against streaming them, and counting without finding them.
+ *
+ * <p>Run with {@code java -jar target/benchmarks.jar -prof gc
+ * -prof com.derplicity.sums.PeakHeapProfiler} to also report allocation per operation and peak
+ * heap use.
+ *
+ * @author Michael Kerl
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class SumsToNBenchmark {
+
+  @Param({"10", "20", "40", "60", "80"})
+  private int n;
+
+  /**
+   * Original recursive path, storing every sum as a list of boxed integers.
+   *
+   * @return the number of sums found.
+   */
+  @Benchmark
+  public int recursiveMaterialize() {
+    SumsToN sumsToN = new SumsToN(n);
+    sumsToN.getSums();
+    return sumsToN.sumsCount();
+  }
+
+  /**
+   * Iterative path, storing a copy of every sum.
+   *
+   * @return the sums found.
+   */
+  @Benchmark
+  public List<int[]> iterativeMaterialize() {
+    List<int[]> sums = new ArrayList<>();
+    SumsToN.forEachSum(n, (parts, length) -> sums.add(Arrays.copyOf(parts, length)));
+    return sums;
+  }
+
+  /**
+   * Recursive path, streaming every sum through a single buffer.
+   *
+   * @param blackhole - consumes each sum.
+   * @return the number of sums found.
+   */
+  @Benchmark
+  public long recursiveStream(Blackhole blackhole) {
+    return SumsToN.forEachSumRecursive(n, (parts, length) -> blackhole.consume(parts[length - 1]));
+  }
+
+  /**
+   * Iterative path, streaming every sum through a single buffer.
+   *
+   * @param blackhole - consumes each sum.
+   * @return the number of sums found.
+   */
+  @Benchmark
+  public long iterativeStream(Blackhole blackhole) {
+    return SumsToN.forEachSum(n, (parts, length) -> blackhole.consume(parts[length - 1]));
+  }
+
+  /**
+   * Fork/join path, finding every sum only to count it.
+   *
+   * @return the number of sums found.
+   */
+  @Benchmark
+  public long parallelCount() {
+    return SumsToN.countSumsParallel(n);
+  }
+
+  /**
+   * Count-only path, which never finds the sums.
+   *
+   * @return the number of sums.
+   */
+  @Benchmark
+  public Object countOnly() {
+    return SumsToN.countSums(n);
+  }
+
+}
@@ -0,0 +1,205 @@
+package com.derplicity.sums;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The SumsCache class answers sum queries for many values of n by reusing the shared endings of
+ * sums. The sums of n which start with i all end in a sum of n - i whose numbers are at least i,
+ * so those endings are cached by (remaining value, smallest number) and shared between queries.
+ *
+ * <p>The cache is bounded by the total count of numbers it holds, evicting the least recently
+ * used endings first. Endings larger than the whole bound are never built; their sums are walked
+ * one at a time instead, so memory stays within the bound however large n is.
+ *
+ * @author Michael Kerl
+ */
+public class SumsCache {
+
+  /** Endings keyed by remaining value and smallest number, least recently used first. */
+  private final LinkedHashMap<Long, int[]> endings = new LinkedHashMap<>(16, 0.75f, true);
+
+  /** Largest int array the JVM will reliably allocate. */
+  private static final long MAX_ARRAY_INTS = Integer.MAX_VALUE - 8;
+
+  private final long maxInts;
+  private long cachedInts;
+
+  /**
+   * Constructor which initializes field members based on input.
+   *
+   * @param maxInts - most numbers the cache may hold across all of its endings.
+   */
+  public SumsCache(long maxInts) {
+    this.maxInts = maxInts;
+  }
+
+  /**
+   * Pass every sum which adds up to n to the consumer, building only the endings not already
+   * cached. Endings too large for the bound are walked without building them.
+   *
+   * @param n - value the sums add up to.
+   * @param consumer - receives each sum in the same order as getSums() finds them.
+   * @return the number of sums found.
+   */
+  public long forEachSum(int n, SumsToN.SumConsumer consumer) {
+    if (n <= 0) {
+      return 0;
+    }
+
+    int[] parts = new int[n];
+    long count = 0;
+    long[][] sizes = endingSizes(n);
+    long limit = Math.min(maxInts, MAX_ARRAY_INTS);
+
+    for (int first = 1; first <= n / 2; first++) {
+      parts[0] = first;
+
+      if (sizes[n - first][first] > limit) {
+        count += SumsToN.walkSums(parts, 1, n - first, first, consumer);
+        continue;
+      }
+
+      // Each ending is stored as its length followed by its numbers
+      int[] sums = endings(n - first, first);
+      for (int i = 0; i < sums.length; i += sums[i] + 1) {
+        System.arraycopy(sums, i + 1, parts, 1, sums[i]);
+        consumer.accept(parts, sums[i] + 1);
+        count++;
+      }
+    }
+
+    parts[0] = n;
+    consumer.accept(parts, 1);
+    return count + 1;
+  }
+
+  /**
+   * Get the count of numbers currently held by the cache.
+   *
+   * @return the numbers held across all cached endings.
+   */
+  public synchronized long cachedInts() {
+    return cachedInts;
+  }
+
+  /**
+   * Build a table of how many numbers the endings of each remaining value take up when stored,
+   * counting the length stored before each ending. Sizes too large for a long are capped at
+   * Long.MAX_VALUE.
+   *
+   * @param n - largest remaining value in the table.
+   * @return table where [remaining][minPart] is the stored size of endings(remaining, minPart),
+   *         for minPart from 1 to n + 1.
+   */
+  static long[][] endingSizes(int n) {
+    long[][] counts = SumsToN.countTable(n);
+    long[][] sizes = new long[n + 1][n + 2];
+
+    for (int remaining = 0; remaining <= n; remaining++) {
+      // The empty sum only takes up its length
+      sizes[remaining][n + 1] = remaining == 0 ? 1 : 0;
+
+      // Starting each ending with minPart adds one number to it
+      for (int minPart = n; minPart >= 1; minPart--) {
+        long size = sizes[remaining][minPart + 1];
+        if (minPart <= remaining) {
+          size += sizes[remaining - minPart][minPart];
+          if (size >= 0) {
+            size += counts[remaining - minPart][minPart];
+          }
+          if (size < 0) {
+            size = Long.MAX_VALUE;
+          }
+        }
+        sizes[remaining][minPart] = size;
+      }
+    }
+
+    return sizes;
+  }
+
+  /**
+   * Get every sum of a remaining value whose numbers are at least a given size, from the cache
+   * if possible. Callers make sure the endings fit in the bound, which also holds for every
+   * smaller ending built along the way.
+   *
+   * @param remaining - value the endings add up to.
+   * @param minPart - smallest number allowed.
+   * @return the endings in order, each as its length followed by its numbers.
+   */
+  private int[] endings(int remaining, int minPart) {
+    Long key = ((long) remaining << 32) | minPart;
+
+    int[] sums = lookup(key);
+    if (sums != null) {
+      return sums;
+    }
+
+    // Build from the endings of what is left after each possible next number
+    int[] built = new int[16];
+    int size = 0;
+
+    for (int part = minPart; part <= remaining / 2; part++) {
+      int[] rest = endings(remaining - part, part);
+
+      for (int i = 0; i < rest.length; i += rest[i] + 1) {
+        if (size + rest[i] + 2 > built.length) {
+          built = Arrays.copyOf(built, Math.max(built.length * 2, size + rest[i] + 2));
+        }
+
+        built[size++] = rest[i] + 1;
+        built[size++] = part;
+        System.arraycopy(rest, i + 1, built, size, rest[i]);
+        size += rest[i];
+      }
+    }
+
+    if (remaining >= minPart) {
+      if (size + 2 > built.length) {
+        built = Arrays.copyOf(built, size + 2);
+      }
+
+      built[size++] = 1;
+      built[size++] = remaining;
+    }
+
+    sums = Arrays.copyOf(built, size);
+    store(key, sums);
+    return sums;
+  }
+
+  /**
+   * Get cached endings, marking them as most recently used.
+   *
+   * @param key - remaining value and smallest number.
+   * @return the cached endings, or null if they are not cached.
+   */
+  private synchronized int[] lookup(Long key) {
+    return endings.get(key);
+  }
+
+  /**
+   * Cache endings, evicting the least recently used ones until they fit.
+   *
+   * @param key - remaining value and smallest number.
+   * @param sums - endings to cache.
+   */
+  private synchronized void store(Long key, int[] sums) {
+    if (sums.length > maxInts || endings.containsKey(key)) {
+      return;
+    }
+
+    Iterator<Map.Entry<Long, int[]>> eldest = endings.entrySet().iterator();
+    while (cachedInts + sums.length > maxInts) {
+      cachedInts -= eldest.next().getValue().length;
+      eldest.remove();
+    }
+
+    endings.put(key, sums);
+    cachedInts += sums.length;
+  }
+
+}
@@ -0,0 +1,936 @@
+package com.derplicity.sums;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * The SumsToN class produces a list of all the different ways to get a collection of positive
+ * integers adding up to n.
+ * 
+ * @author Michael Kerl
+ */
+public class SumsToN {
+
+  /** Subtrees with at most this many sums are walked by a single task. */
+  private static final long SEQUENTIAL_THRESHOLD = 1 << 16;
+
+  private int n;
+  private ArrayList<ArrayList<Integer>> sumsList;
+
+  /**
+   * Receives each sum as soon as it is found.
+   */
+  public interface SumConsumer {
+
+    /**
+     * Accept a single sum. The buffer is reused for the next sum, so copy it if it must be kept.
+     * 
+     * @param parts - buffer holding the numbers in the sum.
+     * @param length - number of entries in the buffer which belong to the sum.
+     */
+    void accept(int[] parts, int length);
+  }
+
+  /**
+   * Print a list of sums which add up to a user defined integer N.
+   * @param args - "stream" prints each sum as soon as it is found instead of storing them all,
+   *        "count" only prints the number of sums, "parallel" counts them by finding them on
+   *        every core. After "stream", an optional file name writes the sums to that file, and a
+   *        further "binary" writes them in the varint format of SumsWriter.
+   * @throws IOException if the sums cannot be written.
+   */
+  public static void main(String[] args) throws IOException {
+    Scanner userInput = new Scanner(System.in);
+
+    // Get value of N from user
+    System.out.print("Value of N: ");
+    int nValue = userInput.nextInt();
+    userInput.close();
+
+    // Count the sums without finding them
+    if (args.length > 0 && args[0].equals("count")) {
+      System.out.println("Possible Sums (" + countSums(nValue) + ")");
+      return;
+    }
+
+    // Find the sums on every core, only keeping their number
+    if (args.length > 0 && args[0].equals("parallel")) {
+      System.out.println("Possible Sums (" + countSumsParallel(nValue) + ")");
+      return;
+    }
+
+    // Stream the sums, so output starts right away and memory stays O(N)
+    if (args.length > 0 && args[0].equals("stream")) {
+      boolean binary = args.length > 2 && args[2].equals("binary");
+      long count;
+
+      if (args.length > 1) {
+        try (SumsWriter writer = SumsWriter.toFile(Paths.get(args[1]), binary)) {
+          count = forEachSum(nValue, writer);
+        }
+      } else {
+        SumsWriter writer = new SumsWriter(Channels.newChannel(System.out), binary);
+        count = forEachSum(nValue, writer);
+        writer.flush();
+      }
+
+      System.out.println("Possible Sums (" + count + ")");
+      return;
+    }
+
+    // Create SumsToN instance with given N
+    SumsToN sumsToN = new SumsToN(nValue);
+    sumsToN.getSums();
+    sumsToN.printSums();
+  }
+
+  /**
+   * Constructor which initializes field members based on input.
+   * 
+   * @param n
+   */
+  SumsToN(int n) {
+    this.n = n;
+    sumsList = new ArrayList<>();
+  }
+
+  /**
+   * Call getSums() method with initial parameters.
+   */
+  void getSums() {
+    getSums(new ArrayList<>(), 0, 1);
+  }
+
+  /**
+   * Get the number of sums found by getSums().
+   * 
+   * @return the number of sums which add up to N.
+   */
+  int sumsCount() {
+    return sumsList.size();
+  }
+
+  /**
+   * Recursively calculate the sums which add up to N.
+   * 
+   * @param prevList - previous list of numbers in the sum.
+   * @param prevSum - sum of the numbers in the previous list.
+   * @param prevI - previous value of I (automatically prunes duplicates such as 1+2 and 2+1).
+   */
+  private void getSums(ArrayList<Integer> prevList, int prevSum, int prevI) {
+    for (int i = prevI; i <= n; i++) {
+      ArrayList<Integer> newList = new ArrayList<>();
+      int newSum = prevSum + i;
+
+      newList.addAll(prevList);
+      newList.add(i);
+    
+      if (newSum == n) {
+        sumsList.add(newList);
+      }
+      
+      if (newSum < n) {
+        getSums(newList, newSum, i);
+      }
+    }
+  }
+
+  /**
+   * Pass every sum which adds up to n to the consumer as soon as it is found. A single buffer of
+   * length n is reused for every sum and nothing is allocated per sum, so memory stays O(n) no
+   * matter how many sums there are.
+   * 
+   * @param n - value the sums add up to.
+   * @param consumer - receives each sum in the same order as getSums() finds them.
+   * @return the number of sums found.
+   */
+  public static long forEachSum(int n, SumConsumer consumer) {
+    if (n <= 0) {
+      return 0;
+    }
+
+    return walkSums(new int[n], 0, n, 1, consumer);
+  }
+
+  /**
+   * Iteratively pass the sums of the remaining value to the consumer, stepping with nextSum()
+   * until the next step would change the numbers of the sum so far.
+   * 
+   * @param parts - buffer holding the numbers of the sum so far.
+   * @param length - number of numbers in the sum so far.
+   * @param remaining - value still needed to reach n.
+   * @param minPart - smallest number allowed next.
+   * @param consumer - receives each completed sum.
+   * @return the number of sums found.
+   */
+  static long walkSums(int[] parts, int length, int remaining, int minPart,
+      SumConsumer consumer) {
+    if (remaining < minPart) {
+      return 0;
+    }
+
+    // Start from the first sum, which uses as many of the smallest number as possible
+    int end = length;
+    while (remaining >= 2 * minPart) {
+      parts[end++] = minPart;
+      remaining -= minPart;
+    }
+    parts[end++] = remaining;
+
+    long count = 0;
+    while (true) {
+      consumer.accept(parts, end);
+      count++;
+
+      if (end - 2 < length) {
+        return count;
+      }
+      end = nextSum(parts, end);
+    }
+  }
+
+  /**
+   * Same as forEachSum(), but walks the sums with recursion instead of iteration.
+   * 
+   * @param n - value the sums add up to.
+   * @param consumer - receives each sum in the same order as getSums() finds them.
+   * @return the number of sums found.
+   */
+  public static long forEachSumRecursive(int n, SumConsumer consumer) {
+    if (n <= 0) {
+      return 0;
+    }
+
+    return forEachSum(new int[n], 0, n, 1, consumer);
+  }
+
+  /**
+   * Pass every sum which adds up to n to the consumer, splitting the work across the common
+   * ForkJoinPool by the first numbers of the sum. The consumer is called concurrently from the
+   * worker threads in no particular order; each call gets a buffer owned by the calling task.
+   * 
+   * @param n - value the sums add up to.
+   * @param consumer - thread-safe receiver of each sum.
+   * @return the number of sums found.
+   */
+  public static long forEachSumParallel(int n, SumConsumer consumer) {
+    if (n <= 0) {
+      return 0;
+    }
+
+    SumsTask task = new SumsTask(countTable(n), new int[n], 0, n, 1, consumer);
+    return ForkJoinPool.commonPool().invoke(task);
+  }
+
+  /**
+   * Count the sums which add up to n by finding them across the common ForkJoinPool. Each task
+   * returns its own count and the counts are added as tasks are joined, so no lock is shared.
+   * 
+   * @param n - value the sums add up to.
+   * @return the number of sums found.
+   */
+  public static long countSumsParallel(int n) {
+    return forEachSumParallel(n, null);
+  }
+
+  /**
+   * Limits which sums forEachSum(int, Constraints, SumConsumer) finds. By default every sum is allowed.
+   */
+  public static class Constraints {
+
+    private int maxPart = Integer.MAX_VALUE;
+    private int maxCount = Integer.MAX_VALUE;
+    private boolean distinct;
+    private int[] allowedParts;
+
+    /**
+     * Only allow numbers up to a given size.
+     * 
+     * @param maxPart - largest number allowed in a sum.
+     * @return these constraints.
+     */
+    public Constraints maxPart(int maxPart) {
+      this.maxPart = maxPart;
+      return this;
+    }
+
+    /**
+     * Only allow sums of up to a given number of numbers.
+     * 
+     * @param maxCount - largest number of numbers allowed in a sum.
+     * @return these constraints.
+     */
+    public Constraints maxCount(int maxCount) {
+      this.maxCount = maxCount;
+      return this;
+    }
+
+    /**
+     * Only allow sums whose numbers are all different.
+     * 
+     * @param distinct - true if no number may appear twice in a sum.
+     * @return these constraints.
+     */
+    public Constraints distinct(boolean distinct) {
+      this.distinct = distinct;
+      return this;
+    }
+
+    /**
+     * Only allow numbers from a given set.
+     * 
+     * @param allowedParts - positive numbers allowed in a sum, in any order.
+     * @return these constraints.
+     */
+    public Constraints allowedParts(int... allowedParts) {
+      for (int part : allowedParts) {
+        if (part <= 0) {
+          throw new IllegalArgumentException("Allowed parts must be positive: " + part);
+        }
+      }
+
+      this.allowedParts = allowedParts.clone();
+      return this;
+    }
+
+    /**
+     * Get the numbers a sum of n may use, in ascending order.
+     * 
+     * @param n - value the sums add up to.
+     * @return the sorted, distinct numbers allowed.
+     */
+    private int[] candidates(int n) {
+      int largest = Math.min(n, maxPart);
+
+      if (allowedParts == null) {
+        int[] candidates = new int[Math.max(largest, 0)];
+        for (int i = 0; i < candidates.length; i++) {
+          candidates[i] = i + 1;
+        }
+        return candidates;
+      }
+
+      return Arrays.stream(allowedParts).filter(part -> part <= largest).sorted().distinct()
+          .toArray();
+    }
+  }
+
+  /**
+   * Pass every sum which adds up to n and meets the constraints to the consumer. The constraints
+   * bound every number by the remaining value and the remaining count of numbers, so subtrees
+   * holding no allowed sum are never visited.
+   * 
+   * @param n - value the sums add up to.
+   * @param constraints - limits on which sums are found.
+   * @param consumer - receives each sum in the same order as getSums() finds them.
+   * @return the number of sums found.
+   */
+  public static long forEachSum(int n, Constraints constraints, SumConsumer consumer) {
+    if (n <= 0 || constraints.maxCount <= 0) {
+      return 0;
+    }
+
+    int[] candidates = constraints.candidates(n);
+    if (candidates.length == 0) {
+      return 0;
+    }
+
+    return forEachConstrainedSum(new int[n], 0, n, 0, constraints.maxCount, candidates,
+        constraints.distinct, consumer);
+  }
+
+  /**
+   * Recursively pass the allowed sums of the remaining value to the consumer.
+   * 
+   * @param parts - buffer holding the numbers of the sum so far.
+   * @param length - number of numbers in the sum so far.
+   * @param remaining - value still needed to reach n.
+   * @param start - index of the smallest candidate allowed next.
+   * @param countLeft - number of numbers which may still be added.
+   * @param candidates - sorted numbers allowed in a sum.
+   * @param distinct - true if no number may appear twice.
+   * @param consumer - receives each completed sum.
+   * @return the number of sums found.
+   */
+  private static long forEachConstrainedSum(int[] parts, int length, int remaining, int start,
+      int countLeft, int[] candidates, boolean distinct, SumConsumer consumer) {
+    // Skip numbers too small for the remaining count of numbers to reach the remaining value
+    long largest = candidates[candidates.length - 1];
+    long smallest = remaining - (countLeft - 1) * largest;
+    while (start < candidates.length && candidates[start] < smallest) {
+      start++;
+    }
+
+    long count = 0;
+    for (int index = start; index < candidates.length; index++) {
+      int part = candidates[index];
+      int rest = remaining - part;
+      int next = distinct ? index + 1 : index;
+
+      // Once no further number fits after this one, only the remaining value itself can end
+      // the sum
+      if (rest <= 0 || countLeft == 1 || next >= candidates.length || rest < candidates[next]) {
+        int last = Arrays.binarySearch(candidates, index, candidates.length, remaining);
+        if (last >= 0) {
+          parts[length] = remaining;
+          consumer.accept(parts, length + 1);
+          count++;
+        }
+        break;
+      }
+
+      parts[length] = part;
+      count += forEachConstrainedSum(parts, length + 1, rest, next, countLeft - 1, candidates,
+          distinct, consumer);
+    }
+
+    return count;
+  }
+
+  /**
+   * Pass every sum which adds up to n to the consumer, saving a checkpoint every interval sums so
+   * that a run which stops part way can carry on from the last checkpoint. The iterative
+   * generator keeps all of its state in the current sum, so a checkpoint is just that sum and
+   * how many sums came before it.
+   * 
+   * <p>If the checkpoint file exists, the sums up to and including the one it holds are skipped.
+   * Sums passed to the consumer after the last checkpoint are passed again on resume, so the
+   * consumer should make its own output durable at the same interval. The checkpoint file is
+   * deleted once every sum has been found.
+   * 
+   * @param n - value the sums add up to.
+   * @param checkpoint - file the checkpoint is saved to and resumed from.
+   * @param interval - number of sums between checkpoints.
+   * @param consumer - receives each sum in the same order as getSums() finds them.
+   * @return the number of sums found, including those found before resuming.
+   * @throws IOException if the checkpoint cannot be read or written.
+   */
+  public static long forEachSum(int n, Path checkpoint, long interval, SumConsumer consumer)
+      throws IOException {
+    if (interval <= 0) {
+      throw new IllegalArgumentException("Interval must be positive: " + interval);
+    }
+
+    if (n <= 0) {
+      return 0;
+    }
+
+    int[] parts = new int[n];
+    int length;
+    long count;
+
+    if (Files.exists(checkpoint)) {
+      // Carry on from the sum after the one saved
+      try (DataInputStream in = new DataInputStream(
+          new BufferedInputStream(Files.newInputStream(checkpoint)))) {
+        if (in.readInt() != n) {
+          throw new IOException("Checkpoint " + checkpoint + " is not for N = " + n);
+        }
+        count = in.readLong();
+        length = in.readInt();
+        if (count <= 0 || length <= 0 || length > n) {
+          throw new IOException("Checkpoint " + checkpoint + " is corrupt");
+        }
+
+        // The saved sum must be one the generator could have reached
+        long total = 0;
+        for (int i = 0; i < length; i++) {
+          parts[i] = in.readInt();
+          if (parts[i] < (i == 0 ? 1 : parts[i - 1])) {
+            throw new IOException("Checkpoint " + checkpoint + " is corrupt");
+          }
+          total += parts[i];
+        }
+        if (total != n) {
+          throw new IOException("Checkpoint " + checkpoint + " is corrupt");
+        }
+      }
+      length = nextSum(parts, length);
+    } else {
+      Arrays.fill(parts, 1);
+      length = n;
+      count = 0;
+    }
+
+    while (length > 0) {
+      consumer.accept(parts, length);
+      count++;
+
+      if (count % interval == 0) {
+        saveCheckpoint(checkpoint, n, count, parts, length);
+      }
+      length = nextSum(parts, length);
+    }
+
+    Files.deleteIfExists(checkpoint);
+    return count;
+  }
+
+  /**
+   * Save the current sum and the number of sums found so far. The checkpoint is written to a
+   * temporary file first and moved into place, so a crash never leaves a partial checkpoint.
+   * 
+   * @param checkpoint - file the checkpoint is saved to.
+   * @param n - value the sums add up to.
+   * @param count - number of sums found, including the current one.
+   * @param parts - buffer holding the numbers in the current sum.
+   * @param length - number of entries in the buffer which belong to the sum.
+   * @throws IOException if the checkpoint cannot be written.
+   */
+  private static void saveCheckpoint(Path checkpoint, int n, long count, int[] parts, int length)
+      throws IOException {
+    Path temporary = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+      out.writeInt(n);
+      out.writeLong(count);
+      out.writeInt(length);
+      for (int i = 0; i < length; i++) {
+        out.writeInt(parts[i]);
+      }
+    }
+
+    Files.move(temporary, checkpoint, StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Pass the sums numbered from (inclusive) to to (exclusive) in the order getSums() finds them
+   * to the consumer, without finding the sums before them.
+   * 
+   * @param n - value the sums add up to.
+   * @param from - number of the first sum, starting at 0.
+   * @param to - number after the last sum.
+   * @param consumer - receives each sum in order.
+   * @return the number of sums found.
+   */
+  public static long forEachSum(int n, long from, long to, SumConsumer consumer) {
+    return new Ranking(n).forEachSum(from, to, consumer);
+  }
+
+  /**
+   * Numbers the sums of n in the order getSums() finds them, so any sum can be found from its
+   * number and the other way round without finding the sums before it. Built on a table of how
+   * many sums each remaining value has given the smallest number allowed.
+   */
+  public static class Ranking {
+
+    private final int n;
+    private final long[][] counts;
+
+    /**
+     * Constructor which builds the count table for n.
+     * 
+     * @param n - value the sums add up to.
+     * @throws ArithmeticException if n has too many sums to number in a long.
+     */
+    public Ranking(int n) {
+      this.n = Math.max(n, 0);
+      this.counts = countTable(this.n);
+
+      if (counts[this.n][1] == Long.MAX_VALUE) {
+        throw new ArithmeticException("Too many sums of " + n + " to number in a long");
+      }
+    }
+
+    /**
+     * Get the number of sums of n.
+     * 
+     * @return the number of sums which add up to n.
+     */
+    public long size() {
+      return n == 0 ? 0 : counts[n][1];
+    }
+
+    /**
+     * Get the number of a sum in the order getSums() finds them.
+     * 
+     * @param parts - buffer holding the numbers in the sum, in ascending order.
+     * @param length - number of entries in the buffer which belong to the sum.
+     * @return the number of the sum, starting at 0.
+     * @throws IllegalArgumentException if the buffer does not hold a sum of n.
+     */
+    public long rank(int[] parts, int length) {
+      long rank = 0;
+      int remaining = n;
+      int minPart = 1;
+
+      for (int i = 0; i < length; i++) {
+        int part = parts[i];
+        if (part < minPart || part > remaining) {
+          throw new IllegalArgumentException("Not an ascending sum of " + n);
+        }
+
+        // Skip every sum which has a smaller number in this position
+        for (int smaller = minPart; smaller < part; smaller++) {
+          rank += counts[remaining - smaller][smaller];
+        }
+
+        remaining -= part;
+        minPart = part;
+      }
+
+      if (remaining != 0 || n == 0) {
+        throw new IllegalArgumentException("Not an ascending sum of " + n);
+      }
+
+      return rank;
+    }
+
+    /**
+     * Fill a buffer with the sum which has a given number in the order getSums() finds them.
+     * 
+     * @param rank - number of the sum, starting at 0.
+     * @param parts - buffer of length at least n to hold the sum.
+     * @return the number of entries in the buffer which belong to the sum.
+     * @throws IllegalArgumentException if there is no sum with that number.
+     */
+    public int unrank(long rank, int[] parts) {
+      if (rank < 0 || rank >= size()) {
+        throw new IllegalArgumentException("No sum of " + n + " numbered " + rank);
+      }
+
+      int length = 0;
+      int remaining = n;
+      int minPart = 1;
+
+      while (remaining > 0) {
+        // Find the number in this position by skipping whole groups of sums
+        int part = minPart;
+        while (rank >= counts[remaining - part][part]) {
+          rank -= counts[remaining - part][part];
+          part++;
+        }
+
+        parts[length++] = part;
+        remaining -= part;
+        minPart = part;
+      }
+
+      return length;
+    }
+
+    /**
+     * Pass the sums numbered from (inclusive) to to (exclusive) to the consumer.
+     * 
+     * @param from - number of the first sum, starting at 0.
+     * @param to - number after the last sum, capped at the number of sums.
+     * @param consumer - receives each sum in order.
+     * @return the number of sums found.
+     */
+    public long forEachSum(long from, long to, SumConsumer consumer) {
+      to = Math.min(to, size());
+      if (from < 0 || from >= to) {
+        return 0;
+      }
+
+      int[] parts = new int[n];
+      int length = unrank(from, parts);
+
+      long count = 0;
+      while (true) {
+        consumer.accept(parts, length);
+        count++;
+
+        if (from + count == to) {
+          return count;
+        }
+        length = nextSum(parts, length);
+      }
+    }
+  }
+
+  /**
+   * Finds the sums which start with a given list of numbers, forking a subtask per next number
+   * until the remaining value is small enough to walk directly.
+   */
+  private static class SumsTask extends RecursiveTask<Long> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long[][] counts;
+    private final int[] parts;
+    private final int length;
+    private final int remaining;
+    private final int minPart;
+    private final SumConsumer consumer;
+
+    /**
+     * Constructor which initializes field members based on input.
+     * 
+     * @param counts - table from countTable(), used to size the subtrees.
+     * @param parts - buffer owned by this task, holding the numbers of the sum so far.
+     * @param length - number of numbers in the sum so far.
+     * @param remaining - value still needed to reach n.
+     * @param minPart - smallest number allowed next.
+     * @param consumer - receives each completed sum, or null to only count them.
+     */
+    SumsTask(long[][] counts, int[] parts, int length, int remaining, int minPart,
+        SumConsumer consumer) {
+      this.counts = counts;
+      this.parts = parts;
+      this.length = length;
+      this.remaining = remaining;
+      this.minPart = minPart;
+      this.consumer = consumer;
+    }
+
+    @Override
+    protected Long compute() {
+      SumConsumer target = consumer != null ? consumer : (sumParts, sumLength) -> { };
+
+      // Small subtrees are cheaper to walk here than to split
+      if (counts[remaining][minPart] <= SEQUENTIAL_THRESHOLD) {
+        return walkSums(parts, length, remaining, minPart, target);
+      }
+
+      List<SumsTask> subtasks = new ArrayList<>();
+      for (int i = minPart; i <= remaining / 2; i++) {
+        int[] subParts = parts.clone();
+        subParts[length] = i;
+        subtasks.add(new SumsTask(counts, subParts, length + 1, remaining - i, i, consumer));
+      }
+      invokeAll(subtasks);
+
+      // The sum ending with the whole remaining value
+      parts[length] = remaining;
+      target.accept(parts, length + 1);
+      long count = 1;
+
+      for (SumsTask subtask : subtasks) {
+        count += subtask.join();
+      }
+
+      return count;
+    }
+  }
+
+  /**
+   * Build a table of how many sums each remaining value has when its numbers must be at least a
+   * given size. Counts too large for a long are capped at Long.MAX_VALUE.
+   * 
+   * @param n - largest remaining value in the table.
+   * @return table where [remaining][minPart] is the number of sums of remaining using only
+   *         numbers of at least minPart, for minPart from 1 to n + 1.
+   */
+  static long[][] countTable(int n) {
+    long[][] counts = new long[n + 1][n + 2];
+
+    for (int remaining = 0; remaining <= n; remaining++) {
+      counts[remaining][n + 1] = remaining == 0 ? 1 : 0;
+
+      // Either no number is minPart, or the sum starts with minPart
+      for (int minPart = n; minPart >= 1; minPart--) {
+        long count = counts[remaining][minPart + 1];
+        if (minPart <= remaining) {
+          count += counts[remaining - minPart][minPart];
+          if (count < 0) {
+            count = Long.MAX_VALUE;
+          }
+        }
+        counts[remaining][minPart] = count;
+      }
+    }
+
+    return counts;
+  }
+
+  /**
+   * Count the sums which add up to n without finding them. Uses Euler's pentagonal number
+   * recurrence, p(m) = sum over k of (-1)^(k+1) * (p(m - k(3k-1)/2) + p(m - k(3k+1)/2)), which
+   * takes O(n * sqrt(n)) additions.
+   * 
+   * @param n - value the sums add up to.
+   * @return the number of sums which add up to n.
+   */
+  public static BigInteger countSums(int n) {
+    if (n <= 0) {
+      return BigInteger.ZERO;
+    }
+
+    BigInteger[] counts = new BigInteger[n + 1];
+    counts[0] = BigInteger.ONE;
+
+    for (int m = 1; m <= n; m++) {
+      BigInteger count = BigInteger.ZERO;
+
+      for (int k = 1; k * (3 * k - 1) / 2 <= m; k++) {
+        int first = m - k * (3 * k - 1) / 2;
+        int second = m - k * (3 * k + 1) / 2;
+        BigInteger term = second >= 0 ? counts[first].add(counts[second]) : counts[first];
+
+        count = k % 2 == 1 ? count.add(term) : count.subtract(term);
+      }
+
+      counts[m] = count;
+    }
+
+    return counts[n];
+  }
+
+  /**
+   * Count the sums which add up to n, modulo a given modulus. Same as countSums(int), but stays
+   * in primitive longs for when only the remainder is needed.
+   * 
+   * @param n - value the sums add up to.
+   * @param modulus - positive modulus the count is reduced by.
+   * @return the number of sums which add up to n, modulo the modulus.
+   */
+  public static long countSums(int n, long modulus) {
+    if (modulus <= 0) {
+      throw new IllegalArgumentException("Modulus must be positive: " + modulus);
+    }
+
+    if (n <= 0) {
+      return 0;
+    }
+
+    long[] counts = new long[n + 1];
+    counts[0] = 1 % modulus;
+
+    for (int m = 1; m <= n; m++) {
+      long count = 0;
+
+      for (int k = 1; k * (3 * k - 1) / 2 <= m; k++) {
+        int first = m - k * (3 * k - 1) / 2;
+        int second = m - k * (3 * k + 1) / 2;
+        long term = second >= 0 ? addMod(counts[first], counts[second], modulus) : counts[first];
+
+        count = k % 2 == 1 ? addMod(count, term, modulus) : subtractMod(count, term, modulus);
+      }
+
+      counts[m] = count;
+    }
+
+    return counts[n];
+  }
+
+  /**
+   * Add two remainders without overflowing, even when the modulus is close to Long.MAX_VALUE.
+   * 
+   * @param a - remainder from 0 up to the modulus.
+   * @param b - remainder from 0 up to the modulus.
+   * @param modulus - positive modulus.
+   * @return (a + b) modulo the modulus.
+   */
+  private static long addMod(long a, long b, long modulus) {
+    // A sum past Long.MAX_VALUE wraps negative, and subtracting the modulus wraps it back
+    long sum = a + b;
+    return sum < 0 || sum >= modulus ? sum - modulus : sum;
+  }
+
+  /**
+   * Subtract two remainders without overflowing, even when the modulus is close to
+   * Long.MAX_VALUE.
+   * 
+   * @param a - remainder from 0 up to the modulus.
+   * @param b - remainder from 0 up to the modulus.
+   * @param modulus - positive modulus.
+   * @return (a - b) modulo the modulus.
+   */
+  private static long subtractMod(long a, long b, long modulus) {
+    long difference = a - b;
+    return difference < 0 ? difference + modulus : difference;
+  }
+
+  /**
+   * Replace a sum with the one which follows it, in the order getSums() finds them. Only the last
+   * two numbers change, before the rest is refilled with the smallest numbers allowed.
+   * 
+   * @param parts - buffer holding the numbers in the sum, in ascending order.
+   * @param length - number of entries in the buffer which belong to the sum.
+   * @return the length of the next sum, or 0 if the given sum was the last one.
+   */
+  static int nextSum(int[] parts, int length) {
+    if (length <= 1) {
+      return 0;
+    }
+
+    // Increase the second to last number by one and try to spread the rest over
+    // numbers at least that large
+    int last = length - 2;
+    int part = parts[last] + 1;
+    int rest = parts[last] + parts[length - 1] - part;
+
+    if (rest < part) {
+      parts[last] += parts[length - 1];
+      return length - 1;
+    }
+
+    parts[last++] = part;
+    while (rest >= 2 * part) {
+      parts[last++] = part;
+      rest -= part;
+    }
+    parts[last++] = rest;
+
+    return last;
+  }
+
+  /**
+   * Recursively pass the sums of the remaining value to the consumer.
+   * 
+   * @param parts - buffer holding the numbers of the sum so far.
+   * @param length - number of numbers in the sum so far.
+   * @param remaining - value still needed to reach n.
+   * @param minPart - smallest number allowed next (automatically prunes duplicates).
+   * @param consumer - receives each completed sum.
+   * @return the number of sums found.
+   */
+  private static long forEachSum(int[] parts, int length, int remaining, int minPart,
+      SumConsumer consumer) {
+    long count = 0;
+
+    // Only recurse while another number of at least i still fits after i
+    for (int i = minPart; i <= remaining / 2; i++) {
+      parts[length] = i;
+      count += forEachSum(parts, length + 1, remaining - i, i, consumer);
+    }
+
+    if (remaining >= minPart) {
+      parts[length] = remaining;
+      consumer.accept(parts, length + 1);
+      count++;
+    }
+
+    return count;
+  }
+
+  /**
+   * Print the list of sums which add up to N.
+   * 
+   * @throws IOException if the sums cannot be written.
+   */
+  private void printSums() throws IOException {
+    System.out.println("Possible Sums (" + sumsList.size() + "):");
+
+    // Format the sums into large chunks rather than printing every number on its own
+    SumsWriter writer = new SumsWriter(Channels.newChannel(System.out), false);
+    int[] parts = new int[Math.max(n, 0)];
+    for (ArrayList<Integer> sumList : sumsList) {
+      for (int i = 0; i < sumList.size(); i++) {
+        parts[i] = sumList.get(i);
+      }
+
+      writer.accept(parts, sumList.size());
+    }
+    writer.flush();
+  }
+
+}
\ No newline at end of file
@@ -0,0 +1,170 @@
+package com.derplicity.sums;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The SumsWriter class formats sums from SumsToN into a reusable buffer and writes it to a channel
+ * in large chunks, either as text lines or in a compact binary format.
+ *
+ * <p>The text format is one "=> 1 + 2 + 3" line per sum, as printed by SumsToN. The binary format
+ * is, per sum, the count of numbers followed by the numbers themselves, each as an unsigned
+ * base-128 varint (7 bits per byte, high bit set on every byte but the last).
+ *
+ * @author Michael Kerl
+ */
+public class SumsWriter implements SumsToN.SumConsumer, Closeable {
+
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  /** Most bytes a single number and its separator can take in either format. */
+  private static final int MAX_PART_BYTES = 16;
+
+  private static final byte[] PREFIX = {'=', '>', ' '};
+  private static final byte[] SEPARATOR = {' ', '+', ' '};
+
+  private final WritableByteChannel channel;
+  private final boolean binary;
+  private final ByteBuffer buffer;
+
+  /**
+   * Constructor which initializes field members based on input.
+   *
+   * @param channel - channel the sums are written to.
+   * @param binary - true for the varint format, false for text lines.
+   */
+  public SumsWriter(WritableByteChannel channel, boolean binary) {
+    this.channel = channel;
+    this.binary = binary;
+    this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+  }
+
+  /**
+   * Create a writer which replaces the contents of a file.
+   *
+   * @param file - file the sums are written to.
+   * @param binary - true for the varint format, false for text lines.
+   * @return a writer for the file.
+   * @throws IOException if the file cannot be opened.
+   */
+  public static SumsWriter toFile(Path file, boolean binary) throws IOException {
+    FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    return new SumsWriter(channel, binary);
+  }
+
+  /**
+   * Format a single sum into the buffer, writing the buffer out whenever it fills up.
+   *
+   * @param parts - buffer holding the numbers in the sum.
+   * @param length - number of entries in the buffer which belong to the sum.
+   * @throws UncheckedIOException if writing to the channel fails.
+   */
+  @Override
+  public void accept(int[] parts, int length) {
+    if (binary) {
+      ensureSpace();
+      putVarint(length);
+
+      for (int i = 0; i < length; i++) {
+        ensureSpace();
+        putVarint(parts[i]);
+      }
+      return;
+    }
+
+    ensureSpace();
+    buffer.put(PREFIX);
+
+    for (int i = 0; i < length; i++) {
+      ensureSpace();
+      if (i != 0) {
+        buffer.put(SEPARATOR);
+      }
+      putDigits(parts[i]);
+    }
+
+    ensureSpace();
+    buffer.put((byte) '\n');
+  }
+
+  /**
+   * Write anything left in the buffer to the channel.
+   *
+   * @throws IOException if writing to the channel fails.
+   */
+  public void flush() throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  /**
+   * Flush the buffer and close the channel.
+   *
+   * @throws IOException if writing to or closing the channel fails.
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      flush();
+    } finally {
+      channel.close();
+    }
+  }
+
+  /**
+   * Flush the buffer if another number might not fit in it.
+   */
+  private void ensureSpace() {
+    if (buffer.remaining() < MAX_PART_BYTES) {
+      try {
+        flush();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+
+  /**
+   * Put the decimal digits of a non-negative number into the buffer.
+   *
+   * @param value - number to put.
+   */
+  private void putDigits(int value) {
+    // Digits come out lowest first, so fill them in from the end
+    int digits = 1;
+    for (int rest = value / 10; rest != 0; rest /= 10) {
+      digits++;
+    }
+
+    int end = buffer.position() + digits;
+    for (int i = end - 1; i >= buffer.position(); i--) {
+      buffer.put(i, (byte) ('0' + value % 10));
+      value /= 10;
+    }
+    buffer.position(end);
+  }
+
+  /**
+   * Put a non-negative number into the buffer as a base-128 varint.
+   *
+   * @param value - number to put.
+   */
+  private void putVarint(int value) {
+    while ((value & ~0x7F) != 0) {
+      buffer.put((byte) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    buffer.put((byte) value);
+  }
+
+}
@@ -0,0 +1,267 @@
+package com.derplicity.sums;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests for class {@link SumsToN} using JUnit 4 framework.
+ *
+ * @author Michael Kerl
+ */
+public class SumsToNTest {
+  /** Sums of 5, in the order getSums() finds them. */
+  public static final int[][] SUMS_OF_FIVE = {
+      {1, 1, 1, 1, 1}, {1, 1, 1, 2}, {1, 1, 3}, {1, 2, 2}, {1, 4}, {2, 3}, {5}};
+
+  /**
+   * Collect every sum passed to a consumer.
+   */
+  private static class Collector implements SumsToN.SumConsumer {
+    final List<int[]> sums = new ArrayList<>();
+
+    @Override
+    public void accept(int[] parts, int length) {
+      sums.add(Arrays.copyOf(parts, length));
+    }
+  }
+
+  /**
+   * Consumer that folds every sum into one hash, for checking long runs without keeping them.
+   */
+  private static class Digest implements SumsToN.SumConsumer {
+    long hash;
+
+    @Override
+    public void accept(int[] parts, int length) {
+      for (int i = 0; i < length; i++) {
+        hash = 31 * hash + parts[i];
+      }
+      hash = 31 * hash - 1;
+    }
+  }
+
+  /**
+   * Verify the streamed sums and their order.
+   */
+  @Test
+  public void forEachSumTest() {
+    Collector collector = new Collector();
+    assertEquals(SUMS_OF_FIVE.length, SumsToN.forEachSum(5, collector));
+    assertArrayEquals(SUMS_OF_FIVE, collector.sums.toArray());
+    assertEquals(0, SumsToN.forEachSum(0, collector));
+    assertEquals(0, SumsToN.forEachSum(-3, collector));
+  }
+
+  /**
+   * Verify the iterative, recursive and original paths find the same sums.
+   */
+  @Test
+  public void iterativeMatchesRecursiveTest() {
+    for (int n = 1; n <= 20; n++) {
+      Collector iterative = new Collector();
+      Collector recursive = new Collector();
+      SumsToN.forEachSum(n, iterative);
+      SumsToN.forEachSumRecursive(n, recursive);
+      assertArrayEquals(iterative.sums.toArray(), recursive.sums.toArray());
+
+      SumsToN sumsToN = new SumsToN(n);
+      sumsToN.getSums();
+      assertEquals(sumsToN.sumsCount(), iterative.sums.size());
+    }
+  }
+
+  /**
+   * Verify counting without finding the sums.
+   */
+  @Test
+  public void countSumsTest() {
+    assertEquals(BigInteger.ZERO, SumsToN.countSums(0));
+    assertEquals(BigInteger.ONE, SumsToN.countSums(1));
+    assertEquals(BigInteger.valueOf(7), SumsToN.countSums(5));
+    assertEquals(BigInteger.valueOf(190569292), SumsToN.countSums(100));
+    assertEquals(new BigInteger("24061467864032622473692149727991"), SumsToN.countSums(1000));
+    assertEquals(SumsToN.countSums(1000).mod(BigInteger.valueOf(1000000007)).longValue(),
+        SumsToN.countSums(1000, 1000000007));
+    assertEquals(SumsToN.countSums(200).longValue(), SumsToN.countSums(200, Long.MAX_VALUE));
+    assertEquals(SumsToN.countSums(1000).mod(BigInteger.valueOf(Long.MAX_VALUE - 24)).longValue(),
+        SumsToN.countSums(1000, Long.MAX_VALUE - 24));
+  }
+
+  /**
+   * Verify the parallel path finds every sum once.
+   */
+  @Test
+  public void parallelTest() {
+    assertEquals(204226, SumsToN.countSumsParallel(50));
+    assertEquals(0, SumsToN.countSumsParallel(0));
+  }
+
+  /**
+   * Verify constrained sums.
+   */
+  @Test
+  public void constrainedSumsTest() {
+    Collector collector = new Collector();
+    SumsToN.forEachSum(5, new SumsToN.Constraints().maxCount(2), collector);
+    assertArrayEquals(new int[][] {{1, 4}, {2, 3}, {5}}, collector.sums.toArray());
+
+    collector = new Collector();
+    SumsToN.forEachSum(5, new SumsToN.Constraints().maxPart(2), collector);
+    assertArrayEquals(new int[][] {{1, 1, 1, 1, 1}, {1, 1, 1, 2}, {1, 2, 2}},
+        collector.sums.toArray());
+
+    collector = new Collector();
+    SumsToN.forEachSum(10, new SumsToN.Constraints().distinct(true).allowedParts(4, 1, 6, 5),
+        collector);
+    assertArrayEquals(new int[][] {{1, 4, 5}, {4, 6}}, collector.sums.toArray());
+  }
+
+  /**
+   * Verify ranking and unranking sums.
+   */
+  @Test
+  public void rankingTest() {
+    SumsToN.Ranking ranking = new SumsToN.Ranking(5);
+    assertEquals(SUMS_OF_FIVE.length, ranking.size());
+
+    int[] parts = new int[5];
+    for (int i = 0; i < SUMS_OF_FIVE.length; i++) {
+      assertEquals(i, ranking.rank(SUMS_OF_FIVE[i], SUMS_OF_FIVE[i].length));
+      int length = ranking.unrank(i, parts);
+      assertArrayEquals(SUMS_OF_FIVE[i], Arrays.copyOf(parts, length));
+    }
+
+    Collector collector = new Collector();
+    assertEquals(3, SumsToN.forEachSum(5, 2, 5, collector));
+    assertArrayEquals(Arrays.copyOfRange(SUMS_OF_FIVE, 2, 5), collector.sums.toArray());
+  }
+
+  /**
+   * Verify the cache finds the same sums as the generator and stays within its bound.
+   */
+  @Test
+  public void cacheTest() {
+    SumsCache cache = new SumsCache(5000);
+    for (int n = 15; n >= 1; n--) {
+      Collector expected = new Collector();
+      Collector cached = new Collector();
+      SumsToN.forEachSum(n, expected);
+      assertEquals(expected.sums.size(), cache.forEachSum(n, cached));
+      assertArrayEquals(expected.sums.toArray(), cached.sums.toArray());
+      assertTrue(cache.cachedInts() <= 5000);
+    }
+
+    Collector collector = new Collector();
+    new SumsCache(0).forEachSum(5, collector);
+    assertArrayEquals(SUMS_OF_FIVE, collector.sums.toArray());
+  }
+
+  /**
+   * Verify a small cache walks sums whose endings would not fit in the test heap if built.
+   */
+  @Test
+  public void boundedCacheTest() {
+    SumsCache cache = new SumsCache(100000);
+    Digest expected = new Digest();
+    Digest cached = new Digest();
+    assertEquals(SumsToN.forEachSum(80, expected), cache.forEachSum(80, cached));
+    assertEquals(expected.hash, cached.hash);
+    assertTrue(cache.cachedInts() > 0);
+    assertTrue(cache.cachedInts() <= 100000);
+  }
+
+  /**
+   * Verify the text and binary output formats.
+   *
+   * @throws IOException if writing fails
+   */
+  @Test
+  public void writerTest() throws IOException {
+    ByteArrayOutputStream text = new ByteArrayOutputStream();
+    SumsWriter writer = new SumsWriter(Channels.newChannel(text), false);
+    writer.accept(new int[] {1, 12, 300}, 3);
+    writer.flush();
+    assertEquals("=> 1 + 12 + 300\n", text.toString("UTF-8"));
+
+    ByteArrayOutputStream binary = new ByteArrayOutputStream();
+    writer = new SumsWriter(Channels.newChannel(binary), true);
+    writer.accept(new int[] {1, 300}, 2);
+    writer.close();
+    assertArrayEquals(new byte[] {2, 1, (byte) 0xAC, 2}, binary.toByteArray());
+  }
+
+  /**
+   * Verify an interrupted run carries on from its checkpoint.
+   *
+   * @throws IOException if the checkpoint cannot be used
+   */
+  @Test
+  public void checkpointTest() throws IOException {
+    Path checkpoint = Files.createTempFile("sums", ".checkpoint");
+    Files.delete(checkpoint);
+
+    final Collector collector = new Collector();
+    try {
+      SumsToN.forEachSum(5, checkpoint, 2, (parts, length) -> {
+        if (collector.sums.size() == 5) {
+          throw new IllegalStateException("Interrupted");
+        }
+        collector.accept(parts, length);
+      });
+    } catch (IllegalStateException e) {
+      // Expected; the last checkpoint was saved after the fourth sum
+    }
+
+    collector.sums.remove(4);
+    assertEquals(SUMS_OF_FIVE.length, SumsToN.forEachSum(5, checkpoint, 2, collector));
+    assertArrayEquals(SUMS_OF_FIVE, collector.sums.toArray());
+    assertFalse(Files.exists(checkpoint));
+  }
+
+  /**
+   * Verify a checkpoint which holds no valid sum of N is rejected.
+   *
+   * @throws IOException if the checkpoint cannot be written
+   */
+  @Test
+  public void corruptCheckpointTest() throws IOException {
+    Path checkpoint = Files.createTempFile("sums", ".checkpoint");
+    int[][] corrupt = {{}, {1, 1, 1, 1, 1, 1}, {2, 1, 2}, {0, 1, 4}, {1, 1, 1, 1}};
+
+    try {
+      for (int[] parts : corrupt) {
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(checkpoint))) {
+          out.writeInt(5);
+          out.writeLong(3);
+          out.writeInt(parts.length);
+          for (int part : parts) {
+            out.writeInt(part);
+          }
+        }
+
+        try {
+          SumsToN.forEachSum(5, checkpoint, 2, new Collector());
+          fail("Accepted checkpoint " + Arrays.toString(parts));
+        } catch (IOException e) {
+          // Expected
+        }
+      }
+    } finally {
+      Files.deleteIfExists(checkpoint);
+    }
+  }
+}
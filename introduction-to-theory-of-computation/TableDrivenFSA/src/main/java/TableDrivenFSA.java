@@ -1,4 +1,12 @@
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
@@ -112,6 +120,9 @@ public class TableDrivenFSA implements java.io.Serializable {
   /** Initial state. */
   private static final int INITIAL_STATE = 0;
 
+  /** Number of characters read at a time from streamed input. */
+  private static final int CHUNK_SIZE = 8192;
+
   /** State transition table. */
   private int[][] stateTransitionTable;
   /** Alphabet symbols, ordered by column of state transition table. */
@@ -119,6 +130,9 @@ public class TableDrivenFSA implements java.io.Serializable {
   /** Identified accept states. */
   private int[] acceptStates;
 
+  /** Compiled form of the table, built on first use. */
+  private transient CompiledTable compiled;
+
   /**
    * Create an automaton using specifications from a text file.
    * 
@@ -206,34 +220,391 @@ public class TableDrivenFSA implements java.io.Serializable {
   }
 
   /**
-   * Process a given input string to determine FSA acceptance.
+   * Process a given input string to determine FSA acceptance. Each character of
+   * the string is one input symbol.
    * 
    * @param inputString the string to process (ignores null input)
-   * @return true if the end state is an accept state, false otherwise
+   * @return true if the end state is an accept state, false otherwise or if no
+   *         table was loaded
    */
   public boolean processString(final String inputString) {
-    // Return false if invalid parameter
-    if (inputString == null) {
+    // Return false if invalid parameter or no table
+    if (inputString == null || this.stateTransitionTable == null) {
       return false;
     }
+    CompiledTable table = this.compile();
 
-    String[] inputSymbols = inputString.split("");
     int currentState = INITIAL_STATE;
-    boolean isInAcceptState = false;
+    if (inputString.isEmpty()) {
+      currentState = table.readEmpty(currentState);
+    }
+    currentState = table.advance(currentState, inputString);
 
-    // Iterate through the steps of the FSA
-    for (String symbol : inputSymbols) {
-      currentState = this.nextState(currentState, symbol);
+    return this.isAcceptState(table, currentState);
+  }
+
+  /**
+   * Process a sequence of characters, one input symbol per character, reading it
+   * in chunks rather than copying it whole.
+   * 
+   * @param input the characters to process (ignores null input)
+   * @return the acceptance and final state; rejected in the start state if the
+   *         input is null or no table was loaded
+   */
+  public Result process(final CharSequence input) {
+    if (input == null || this.stateTransitionTable == null) {
+      return new Result(false, INITIAL_STATE);
     }
+    CompiledTable table = this.compile();
 
-    // Check if the end state is an accept state
-    for (int i = 0; i < this.acceptStates.length; i++) {
-      if (this.acceptStates[i] == currentState) {
-        isInAcceptState = true;
-        break;
+    int currentState = INITIAL_STATE;
+    if (input instanceof String) {
+      currentState = table.advance(currentState, (String) input);
+    } else {
+      char[] chunk = new char[Math.min(CHUNK_SIZE, input.length())];
+      for (int from = 0; from < input.length() && !table.isFinal(currentState); from += chunk.length) {
+        int length = Math.min(chunk.length, input.length() - from);
+        for (int i = 0; i < length; i++) {
+          chunk[i] = input.charAt(from + i);
+        }
+        currentState = table.advance(currentState, chunk, length);
       }
     }
+    return this.result(table, currentState, input.length() == 0);
+  }
+
+  /**
+   * Process characters from a reader, one input symbol per character, in
+   * constant memory. Reading stops early once the state can no longer change.
+   * The reader is not closed.
+   * 
+   * @param reader the characters to process (ignores null input)
+   * @return the acceptance and final state; rejected in the start state if the
+   *         reader is null or no table was loaded
+   * @throws IOException if the reader fails
+   */
+  public Result process(final Reader reader) throws IOException {
+    if (reader == null || this.stateTransitionTable == null) {
+      return new Result(false, INITIAL_STATE);
+    }
+    CompiledTable table = this.compile();
+
+    char[] chunk = new char[CHUNK_SIZE];
+    int currentState = INITIAL_STATE;
+    boolean empty = true;
+    int read;
+    while (!table.isFinal(currentState) && (read = reader.read(chunk)) >= 0) {
+      empty &= read == 0;
+      currentState = table.advance(currentState, chunk, read);
+    }
+    return this.result(table, currentState, empty);
+  }
+
+  /**
+   * Process bytes from a stream, decoded with a charset, one input symbol per
+   * character, in constant memory. Malformed bytes are read as the replacement
+   * character. The stream is not closed.
+   * 
+   * @param in      the bytes to process (ignores null input)
+   * @param charset the encoding of the bytes
+   * @return the acceptance and final state; rejected in the start state if the
+   *         stream is null or no table was loaded
+   * @throws IOException if the stream fails
+   */
+  public Result process(final InputStream in, final Charset charset) throws IOException {
+    if (in == null) {
+      return new Result(false, INITIAL_STATE);
+    }
+    return this.process(new InputStreamReader(in, charset));
+  }
 
-    return isInAcceptState;
+  /**
+   * Process the remaining bytes of a buffer, such as a memory-mapped file,
+   * decoded with a charset, one input symbol per character. The bytes are
+   * decoded a chunk at a time and the position of the buffer is not changed.
+   * Malformed bytes are read as the replacement character.
+   * 
+   * @param buffer  the bytes to process (ignores null input)
+   * @param charset the encoding of the bytes
+   * @return the acceptance and final state; rejected in the start state if the
+   *         buffer is null or no table was loaded
+   */
+  public Result process(final ByteBuffer buffer, final Charset charset) {
+    if (buffer == null || this.stateTransitionTable == null) {
+      return new Result(false, INITIAL_STATE);
+    }
+    CompiledTable table = this.compile();
+
+    ByteBuffer bytes = buffer.duplicate();
+    CharsetDecoder decoder = charset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    CharBuffer chunk = CharBuffer.allocate(CHUNK_SIZE);
+    int currentState = INITIAL_STATE;
+    boolean empty = true;
+    boolean decoded = false;
+    boolean flushed = false;
+    while (!flushed && !table.isFinal(currentState)) {
+      if (!decoded) {
+        decoded = decoder.decode(bytes, chunk, true).isUnderflow();
+      }
+      if (decoded) {
+        // All bytes are decoded; drain any characters the decoder still holds
+        flushed = decoder.flush(chunk).isUnderflow();
+      }
+      empty &= chunk.position() == 0;
+      currentState = table.advance(currentState, chunk.array(), chunk.position());
+      chunk.clear();
+    }
+    return this.result(table, currentState, empty);
+  }
+
+  /**
+   * Build the result of processing an input.
+   * 
+   * @param table the compiled table
+   * @param state the state after the last character
+   * @param empty whether the input had no characters
+   * @return the acceptance and final state
+   */
+  private Result result(final CompiledTable table, final int state, final boolean empty) {
+    int finalState = empty ? table.readEmpty(state) : state;
+    return new Result(this.isAcceptState(table, finalState), finalState);
+  }
+
+  /**
+   * The outcome of processing an input: whether it was accepted and the state
+   * the automaton ended in.
+   */
+  public static final class Result {
+    /** Whether the final state is an accept state. */
+    private final boolean accepted;
+    /** The state after the last input symbol. */
+    private final int finalState;
+
+    /**
+     * Create a result.
+     * 
+     * @param accepted   whether the final state is an accept state
+     * @param finalState the state after the last input symbol
+     */
+    Result(final boolean accepted, final int finalState) {
+      this.accepted = accepted;
+      this.finalState = finalState;
+    }
+
+    /**
+     * Check if the input was accepted.
+     * 
+     * @return true if the final state is an accept state
+     */
+    public boolean isAccepted() {
+      return this.accepted;
+    }
+
+    /**
+     * Get the state the automaton ended in.
+     * 
+     * @return the state after the last input symbol
+     */
+    public int finalState() {
+      return this.finalState;
+    }
+
+    @Override
+    public String toString() {
+      return (this.accepted ? "accepted" : "rejected") + " in state " + this.finalState;
+    }
+  }
+
+  /**
+   * Check if a state is an accept state.
+   * 
+   * @param table the compiled table
+   * @param state the state
+   * @return true if the state is one of the identified accept states
+   */
+  private boolean isAcceptState(final CompiledTable table, final int state) {
+    if (state >= 0 && state < table.accepting.length) {
+      return table.accepting[state];
+    }
+    for (int acceptState : this.acceptStates) {
+      if (acceptState == state) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Get the compiled form of the table, building it the first time.
+   * 
+   * @return the compiled table
+   */
+  private CompiledTable compile() {
+    CompiledTable table = this.compiled;
+    if (table == null) {
+      table = new CompiledTable(this.alphabet, this.stateTransitionTable, this.acceptStates);
+      this.compiled = table;
+    }
+    return table;
+  }
+
+  /**
+   * The transition table compiled for fast processing: a dense array from
+   * character to column and a single flat array of transitions, so each input
+   * character costs two array reads. Symbols longer than one character can never
+   * match a single character, so only one-character symbols get columns; every
+   * other character uses an extra column that leaves the state unchanged.
+   */
+  private static final class CompiledTable {
+    /** Column of each character up to the largest symbol character. */
+    private final int[] columnOf;
+    /** Column of the empty symbol, or -1 if the alphabet has none. */
+    private final int emptyColumn;
+    /** Columns per state: one per symbol plus the stay column. */
+    private final int width;
+    /** Next state at [state * width + column]. */
+    private final int[] transitions;
+    /** Whether each state of the table is an accept state. */
+    private final boolean[] accepting;
+    /** Whether each state of the table goes to itself on every symbol. */
+    private final boolean[] absorbing;
+
+    /**
+     * Compile a transition table.
+     * 
+     * @param alphabet     symbols ordered by column
+     * @param table        new state for each state and column
+     * @param acceptStates identified accept states
+     */
+    CompiledTable(final String[] alphabet, final int[][] table, final int[] acceptStates) {
+      this.width = alphabet.length + 1;
+      int stay = this.width - 1;
+      int maxChar = -1;
+      int empty = -1;
+      for (int i = 0; i < alphabet.length; i++) {
+        if (alphabet[i].length() == 1) {
+          maxChar = Math.max(maxChar, alphabet[i].charAt(0));
+        } else if (alphabet[i].isEmpty() && empty < 0) {
+          empty = i;
+        }
+      }
+      this.emptyColumn = empty;
+
+      // The first column of a repeated symbol wins, as in nextState
+      this.columnOf = new int[maxChar + 1];
+      Arrays.fill(this.columnOf, -1);
+      for (int i = 0; i < alphabet.length; i++) {
+        if (alphabet[i].length() == 1 && this.columnOf[alphabet[i].charAt(0)] < 0) {
+          this.columnOf[alphabet[i].charAt(0)] = i;
+        }
+      }
+      for (int c = 0; c < this.columnOf.length; c++) {
+        if (this.columnOf[c] < 0) {
+          this.columnOf[c] = stay;
+        }
+      }
+
+      int states = table.length;
+      this.transitions = new int[states * this.width];
+      for (int state = 0; state < states; state++) {
+        System.arraycopy(table[state], 0, this.transitions, state * this.width, stay);
+        this.transitions[state * this.width + stay] = state;
+      }
+
+      this.absorbing = new boolean[states];
+      for (int state = 0; state < states; state++) {
+        boolean selfLoop = true;
+        for (int column = 0; column < stay && selfLoop; column++) {
+          selfLoop = this.transitions[state * this.width + column] == state;
+        }
+        this.absorbing[state] = selfLoop;
+      }
+
+      this.accepting = new boolean[states];
+      for (int acceptState : acceptStates) {
+        if (acceptState >= 0 && acceptState < states) {
+          this.accepting[acceptState] = true;
+        }
+      }
+    }
+
+    /**
+     * Run the table over the characters of a string.
+     * 
+     * @param state the state before the first character
+     * @param input the characters to read
+     * @return the state after the last character
+     */
+    int advance(final int state, final String input) {
+      final int[] columns = this.columnOf;
+      final int[] table = this.transitions;
+      final int stay = this.width - 1;
+      final int states = this.accepting.length;
+      int currentState = state;
+
+      for (int i = 0, n = input.length(); i < n; i++) {
+        // A state outside the table never changes
+        if (currentState < 0 || currentState >= states) {
+          break;
+        }
+        char c = input.charAt(i);
+        int column = c < columns.length ? columns[c] : stay;
+        currentState = table[currentState * this.width + column];
+      }
+      return currentState;
+    }
+
+    /**
+     * Run the table over the first characters of an array.
+     * 
+     * @param state  the state before the first character
+     * @param input  the characters to read
+     * @param length the number of characters to read
+     * @return the state after the last character
+     */
+    int advance(final int state, final char[] input, final int length) {
+      final int[] columns = this.columnOf;
+      final int[] table = this.transitions;
+      final int stay = this.width - 1;
+      final int states = this.accepting.length;
+      int currentState = state;
+
+      for (int i = 0; i < length; i++) {
+        // A state outside the table never changes
+        if (currentState < 0 || currentState >= states) {
+          break;
+        }
+        char c = input[i];
+        int column = c < columns.length ? columns[c] : stay;
+        currentState = table[currentState * this.width + column];
+      }
+      return currentState;
+    }
+
+    /**
+     * Read the empty symbol, which is how an empty input is processed.
+     * 
+     * @param state the current state
+     * @return the state after the empty symbol, or the same state if the
+     *         alphabet has no empty symbol
+     */
+    int readEmpty(final int state) {
+      if (this.emptyColumn < 0 || state < 0 || state >= this.accepting.length) {
+        return state;
+      }
+      return this.transitions[state * this.width + this.emptyColumn];
+    }
+
+    /**
+     * Check if no further input can change a state.
+     * 
+     * @param state the state
+     * @return true if the state is outside the table or goes to itself on every
+     *         symbol
+     */
+    boolean isFinal(final int state) {
+      return state < 0 || state >= this.absorbing.length || this.absorbing[state];
+    }
   }
 }
@@ -4,7 +4,12 @@ import static org.junit.Assert.assertEquals;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 
@@ -84,6 +89,69 @@ public class TableDrivenFSATest {
     assertFalse(dfa.processString(null));
   }
 
+  /**
+   * Verify processString agrees with stepping nextState through each character,
+   * including characters outside the alphabet.
+   */
+  @Test
+  public void processMatchesNextStateTest() {
+    TableDrivenFSA dfa = new TableDrivenFSA(TEST_DATA_FILE_NAME);
+    String symbols = "abcx";
+    for (int n = 0; n < 4096; n++) {
+      StringBuilder input = new StringBuilder();
+      for (int m = n; m > 0; m /= symbols.length()) {
+        input.append(symbols.charAt(m % symbols.length()));
+      }
+      int state = 0;
+      for (int i = 0; i < input.length(); i++) {
+        state = dfa.nextState(state, String.valueOf(input.charAt(i)));
+      }
+      assertEquals(input.toString(), state == 2 || state == 3, dfa.processString(input.toString()));
+    }
+  }
+
+  /**
+   * Verify an automaton without a table rejects every input. Note: An expected
+   * side effect is sending an error message to System.err
+   */
+  @Test
+  public void processWithoutTableTest() {
+    TableDrivenFSA dfa = new TableDrivenFSA("BOGUS");
+    assertFalse(dfa.processString("abbc"));
+    assertFalse(dfa.processString(""));
+  }
+
+  /**
+   * Verify streamed input gives the same result as processString.
+   */
+  @Test
+  public void processStreamsTest() throws Exception {
+    TableDrivenFSA dfa = new TableDrivenFSA(TEST_DATA_FILE_NAME);
+    StringBuilder longInput = new StringBuilder();
+    for (int i = 0; i < 20000; i++) {
+      longInput.append(i % 7 == 0 ? 'c' : 'b');
+    }
+    String[] inputs = {"abbc", "b", "ab", "abba", "", "a", "xbx", "\u00e9b", longInput.toString(),
+        longInput + "a"};
+    for (String input : inputs) {
+      boolean expected = dfa.processString(input);
+      TableDrivenFSA.Result result = dfa.process(new StringBuilder(input));
+      assertEquals(input, expected, result.isAccepted());
+      assertEquals(input, result.finalState(), dfa.process(input).finalState());
+      assertEquals(input, expected, dfa.process(new StringReader(input)).isAccepted());
+
+      byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+      assertEquals(input, expected,
+          dfa.process(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8).isAccepted());
+      ByteBuffer buffer = ByteBuffer.wrap(bytes);
+      assertEquals(input, result.finalState(), dfa.process(buffer, StandardCharsets.UTF_8).finalState());
+      assertEquals(0, buffer.position());
+    }
+    assertEquals(3, dfa.process("abbc").finalState());
+    assertEquals(4, dfa.process("abba").finalState());
+    assertFalse(dfa.process((Reader) null).isAccepted());
+  }
+
   /**
    * Verify nextState method behavior with valid parameters.
    */
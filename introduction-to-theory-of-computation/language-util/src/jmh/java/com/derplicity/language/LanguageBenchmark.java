@@ -0,0 +1,300 @@
+package com.derplicity.language;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * JMH benchmarks comparing the ways a {@link Language} can store its strings,
+ * from a thousand to ten million strings.
+ * <p>
+ * Run with {@code java -jar target/benchmarks.jar -prof gc} to also report
+ * allocation per operation. Ten million strings need a large heap; pass
+ * {@code -p size=1000,10000,100000} for a quick run.
+ * </p>
+ *
+ * @author Michael Kerl
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@State(Scope.Benchmark)
+public class LanguageBenchmark {
+
+    /** The number of probe strings, a power of two. */
+    private static final int PROBES = 1 << 12;
+
+    /** The number of strings in the language. */
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    private int size;
+
+    /** How the language stores its strings. */
+    @Param({"TREE_SET", "TRIE", "CONCURRENT"})
+    private Language.Storage storage;
+
+    /** The strings of the language, in no particular order. */
+    private List<String> strings;
+    /** The language of the strings. */
+    private Language language;
+    /** A separately built language equal to the language. */
+    private Language copy;
+    /** The language with one more string. */
+    private Language larger;
+    /** A language with the empty string and one other string. */
+    private Language suffixes;
+    /** Strings in the language. */
+    private String[] present;
+    /** Strings not in the language. */
+    private String[] absent;
+    /** The language in the front-coded binary form. */
+    private byte[] binary;
+    /** The language serialized with Java serialization. */
+    private byte[] serialized;
+    /** The index of the next probe or added string. */
+    private int next;
+
+    /**
+     * Build the languages and probe strings.
+     *
+     * @throws IOException if a language cannot be written
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        Set<String> unique = new HashSet<>(2 * size);
+        while (unique.size() < size) {
+            unique.add(randomString(random));
+        }
+        strings = new ArrayList<>(unique);
+        language = new Language(storage);
+        language.addAllStrings(strings);
+
+        List<String> shuffled = new ArrayList<>(strings);
+        Collections.shuffle(shuffled, random);
+        copy = new Language(storage);
+        copy.addAllStrings(shuffled);
+        larger = new Language(storage);
+        larger.addAllStrings(strings);
+        larger.addString("Z");
+        suffixes = new Language(storage);
+        suffixes.addAllStrings(Arrays.asList("", "z"));
+
+        present = new String[PROBES];
+        absent = new String[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            present[i] = strings.get(random.nextInt(size));
+            // Upper case letters never appear in the language
+            absent[i] = present[i] + 'Z';
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        language.writeTo(bytes);
+        binary = bytes.toByteArray();
+        bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(language);
+        }
+        serialized = bytes.toByteArray();
+    }
+
+    /**
+     * A language added to by addString, rebuilt every iteration so it stays near
+     * the benchmark size.
+     */
+    @State(Scope.Benchmark)
+    public static class Growing {
+
+        /** The language being added to. */
+        private Language language;
+
+        /**
+         * Rebuild the language from the benchmark strings.
+         *
+         * @param benchmark the benchmark state holding the strings
+         */
+        @Setup(Level.Iteration)
+        public void setUp(final LanguageBenchmark benchmark) {
+            language = new Language(benchmark.storage);
+            language.addAllStrings(benchmark.strings);
+        }
+    }
+
+    /**
+     * Makes a random string of lower case letters and digits.
+     *
+     * @param random the source of randomness
+     * @return a string of 4 to 15 characters
+     */
+    private static String randomString(final Random random) {
+        char[] chars = new char[4 + random.nextInt(12)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.forDigit(random.nextInt(36), 36);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Checks a string that is in the language.
+     *
+     * @return whether the string is in the language
+     */
+    @Benchmark
+    public boolean includesHit() {
+        return language.includes(present[next++ & (PROBES - 1)]);
+    }
+
+    /**
+     * Checks a string that is not in the language.
+     *
+     * @return whether the string is in the language
+     */
+    @Benchmark
+    public boolean includesMiss() {
+        return language.includes(absent[next++ & (PROBES - 1)]);
+    }
+
+    /**
+     * Adds a new string to a language of the benchmark size.
+     *
+     * @param growing the language to add to
+     * @return whether the language changed
+     */
+    @Benchmark
+    public boolean addString(final Growing growing) {
+        return growing.language.addString(present[next & (PROBES - 1)] + "Z" + next++);
+    }
+
+    /**
+     * Loads every string into an empty language.
+     *
+     * @return the language
+     */
+    @Benchmark
+    public Language addAllStrings() {
+        Language loaded = new Language(storage);
+        loaded.addAllStrings(strings);
+        return loaded;
+    }
+
+    /**
+     * Concatenates the language with a language of two strings, doubling it.
+     *
+     * @return the concatenation
+     */
+    @Benchmark
+    public Language concatenate() {
+        return language.concatenate(suffixes);
+    }
+
+    /**
+     * Concatenates the language with a language of two strings on the fork/join
+     * pool.
+     *
+     * @return the concatenation
+     */
+    @Benchmark
+    public Language concatenateParallel() {
+        return language.concatenateParallel(suffixes);
+    }
+
+    /**
+     * Visits every string in order.
+     *
+     * @param blackhole consumes each string
+     */
+    @Benchmark
+    public void iterate(final Blackhole blackhole) {
+        for (String s : language) {
+            blackhole.consume(s);
+        }
+    }
+
+    /**
+     * Hashes the language.
+     *
+     * @return the hash code
+     */
+    @Benchmark
+    public int hashCodeOf() {
+        return language.hashCode();
+    }
+
+    /**
+     * Compares the language with an equal one built separately.
+     *
+     * @return whether the languages are equal
+     */
+    @Benchmark
+    public boolean equalsCopy() {
+        return language.equals(copy);
+    }
+
+    /**
+     * Compares the language with one that has one string more.
+     *
+     * @return whether the languages are equal
+     */
+    @Benchmark
+    public boolean equalsLarger() {
+        return language.equals(larger);
+    }
+
+    /**
+     * Writes and reads back the language in the front-coded binary form.
+     *
+     * @return the language read
+     * @throws IOException if the language cannot be written or read
+     */
+    @Benchmark
+    public Language binaryRoundTrip() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(binary.length);
+        language.writeTo(bytes);
+        return Language.readFrom(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+
+    /**
+     * Serializes and deserializes the language.
+     *
+     * @return the language read
+     * @throws IOException            if the language cannot be written or read
+     * @throws ClassNotFoundException if the language class cannot be found
+     */
+    @Benchmark
+    public Object serializationRoundTrip() throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(serialized.length);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(language);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(
+                new ByteArrayInputStream(bytes.toByteArray()))) {
+            return in.readObject();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.derplicity.language;
+
+/**
+ * A Bloom filter over strings, which answers "definitely absent" or "possibly
+ * present" after a few bit probes.
+ * <p>
+ * The filter is sized for an expected number of strings and a target false
+ * positive rate. Strings cannot be removed; a removed string only keeps its bits
+ * set, which can cause a false positive but never a false negative. The filter
+ * also counts how its queries were answered.
+ * </p>
+ *
+ * @author Michael Kerl
+ * @version 1.0
+ */
+public final class BloomFilter {
+
+    /** The bits, 64 per word. */
+    private final long[] bits;
+    /** The number of bits. */
+    private final long bitCount;
+    /** The number of bits probed per string. */
+    private final int probes;
+    /** The false positive rate the filter was sized for. */
+    private final double targetRate;
+    /** The number of strings added. */
+    private long added;
+    /** The number of queries answered "possibly present". */
+    private long hits;
+    /** The number of queries answered "definitely absent". */
+    private long misses;
+    /** The number of hits for strings that were not present. */
+    private long falsePositives;
+
+    /**
+     * Create an empty filter.
+     *
+     * @param expectedStrings   the number of strings the filter is sized for
+     * @param falsePositiveRate the false positive rate wanted once that many
+     *                          strings are added, between 0 and 1 exclusive
+     * @throws IllegalArgumentException if the rate is not between 0 and 1
+     */
+    public BloomFilter(final int expectedStrings, final double falsePositiveRate) {
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1");
+        }
+        long n = Math.max(1, expectedStrings);
+        double ln2 = Math.log(2);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (ln2 * ln2));
+        this.bits = new long[(int) Math.min(Integer.MAX_VALUE - 8, (m + 63) / 64)];
+        this.bitCount = 64L * bits.length;
+        this.probes = Math.max(1, (int) Math.round((double) bitCount / n * ln2));
+        this.targetRate = falsePositiveRate;
+    }
+
+    /**
+     * Records a string as present.
+     *
+     * @param s the string
+     */
+    public void add(final String s) {
+        long hash = hash(s);
+        long h1 = hash >>> 32;
+        long h2 = hash & 0xFFFFFFFFL;
+        for (int i = 0; i < probes; i++) {
+            long bit = (h1 + i * h2) % bitCount;
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+        added++;
+    }
+
+    /**
+     * Checks whether a string may be present, counting the answer.
+     *
+     * @param s the string
+     * @return false if the string was definitely never added; true if it may have
+     *         been
+     */
+    public boolean mightContain(final String s) {
+        long hash = hash(s);
+        long h1 = hash >>> 32;
+        long h2 = hash & 0xFFFFFFFFL;
+        for (int i = 0; i < probes; i++) {
+            long bit = (h1 + i * h2) % bitCount;
+            if ((bits[(int) (bit >>> 6)] & 1L << bit) == 0) {
+                misses++;
+                return false;
+            }
+        }
+        hits++;
+        return true;
+    }
+
+    /**
+     * Records that a hit turned out to be for a string that was not present.
+     */
+    void falsePositive() {
+        falsePositives++;
+    }
+
+    /**
+     * Accesses the false positive rate the filter was sized for.
+     *
+     * @return the target rate
+     */
+    public double targetFalsePositiveRate() {
+        return targetRate;
+    }
+
+    /**
+     * Estimates the current false positive rate from the fraction of bits set.
+     *
+     * @return the probability that an absent string is reported as possibly
+     *         present
+     */
+    public double falsePositiveRate() {
+        long set = 0;
+        for (long word : bits) {
+            set += Long.bitCount(word);
+        }
+        return Math.pow((double) set / bitCount, probes);
+    }
+
+    /**
+     * Accesses the number of strings added.
+     *
+     * @return the number of strings added, counting repeats
+     */
+    public long added() {
+        return added;
+    }
+
+    /**
+     * Accesses the number of queries answered "possibly present".
+     *
+     * @return the number of hits
+     */
+    public long hits() {
+        return hits;
+    }
+
+    /**
+     * Accesses the number of queries answered "definitely absent".
+     *
+     * @return the number of misses
+     */
+    public long misses() {
+        return misses;
+    }
+
+    /**
+     * Accesses the number of hits for strings that were not present.
+     *
+     * @return the number of false positives found
+     */
+    public long falsePositives() {
+        return falsePositives;
+    }
+
+    /**
+     * Hashes a string to 64 well mixed bits, split into the two hashes used for
+     * probing.
+     *
+     * @param s the string
+     * @return the hash
+     */
+    private static long hash(final String s) {
+        long h = 0x9E3779B97F4A7C15L ^ s.length();
+        for (int i = 0; i < s.length(); i++) {
+            h = (h ^ s.charAt(i)) * 0x100000001B3L;
+        }
+        // Final mix so every input bit affects both halves
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h | 1;
+    }
+}
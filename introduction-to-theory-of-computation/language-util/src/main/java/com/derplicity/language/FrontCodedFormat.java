@@ -0,0 +1,393 @@
+package com.derplicity.language;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Reads and writes sets of strings in a compact, front-coded binary form.
+ * <p>
+ * The strings are stored in ascending order in blocks. The first string of a
+ * block is stored whole; every other string is stored as the number of bytes it
+ * shares with the string before it followed by the bytes that differ. After the
+ * blocks comes an index of the offset of every block, so a block can be found
+ * without reading the ones before it.
+ * </p>
+ * <p>
+ * Each character is encoded on its own as one to three bytes, as in modified
+ * UTF-8 but with the null character as a single zero byte. Any string, even one
+ * with unpaired surrogates, survives the round trip, and the bytes of two
+ * strings compare in the same order as the strings themselves.
+ * </p>
+ *
+ * <pre>
+ * int    magic ("LANG")
+ * byte   version
+ * int    strings per block
+ * int    number of strings
+ * blocks first: varint length, bytes
+ *        other: varint shared length, varint suffix length, suffix bytes
+ * long[] offset of each block from the start
+ * long   offset of the index from the start
+ * </pre>
+ *
+ * @author Michael Kerl
+ * @version 1.0
+ */
+final class FrontCodedFormat {
+
+    /** The first four bytes of the format, "LANG". */
+    static final int MAGIC = 0x4C414E47;
+    /** The version of the format. */
+    static final byte VERSION = 1;
+    /** The number of bytes before the first block. */
+    static final int HEADER_BYTES = 13;
+    /** The number of bytes after the index. */
+    static final int TRAILER_BYTES = 8;
+    /** The number of strings per block when none is given. */
+    static final int DEFAULT_BLOCK_SIZE = 32;
+
+    /**
+     * Prevents instantiation.
+     */
+    private FrontCodedFormat() {
+    }
+
+    /**
+     * Writes a set of strings.
+     *
+     * @param strings   the strings, iterating in ascending order without duplicates
+     * @param out       the stream to write to, which is not closed
+     * @param blockSize the number of strings per block
+     * @throws IOException if the stream cannot be written
+     */
+    static void write(final Collection<String> strings, final OutputStream out,
+            final int blockSize) throws IOException {
+        int count = strings.size();
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        data.writeInt(blockSize);
+        data.writeInt(count);
+
+        long[] offsets = new long[(count + blockSize - 1) / blockSize];
+        long offset = HEADER_BYTES;
+        byte[] previous = new byte[64];
+        byte[] current = new byte[64];
+        int previousLength = 0;
+        int i = 0;
+        for (String s : strings) {
+            if (current.length < 3 * s.length()) {
+                current = new byte[3 * s.length()];
+            }
+            int length = encode(s, current);
+
+            int shared = 0;
+            if (i % blockSize == 0) {
+                offsets[i / blockSize] = offset;
+            } else {
+                int limit = Math.min(length, previousLength);
+                while (shared < limit && current[shared] == previous[shared]) {
+                    shared++;
+                }
+                offset += writeVarint(data, shared);
+            }
+            offset += writeVarint(data, length - shared);
+            data.write(current, shared, length - shared);
+            offset += length - shared;
+
+            byte[] swap = previous;
+            previous = current;
+            current = swap;
+            previousLength = length;
+            i++;
+        }
+
+        for (long blockOffset : offsets) {
+            data.writeLong(blockOffset);
+        }
+        data.writeLong(offset);
+        data.flush();
+    }
+
+    /**
+     * Reads a set of strings, consuming exactly the bytes that were written.
+     *
+     * @param in the stream to read from, which is not closed
+     * @return the strings, in ascending order without duplicates
+     * @throws IOException if the stream cannot be read or is not in this format
+     */
+    static String[] read(final InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new StreamCorruptedException("Not a language");
+        }
+        if (data.readByte() != VERSION) {
+            throw new StreamCorruptedException("Unsupported language version");
+        }
+        int blockSize = data.readInt();
+        int count = data.readInt();
+        if (blockSize <= 0 || count < 0) {
+            throw new StreamCorruptedException("Invalid language header");
+        }
+
+        String[] strings = new String[count];
+        Decoder decoder = new Decoder(data);
+        for (int i = 0; i < count; i++) {
+            strings[i] = i % blockSize == 0 ? decoder.first() : decoder.next();
+        }
+
+        // Skip the block index and its offset
+        long indexLongs = (count + blockSize - 1) / blockSize + 1;
+        for (long i = 0; i < indexLongs; i++) {
+            data.readLong();
+        }
+        return strings;
+    }
+
+    /**
+     * Decodes the strings of a block one after another.
+     */
+    static final class Decoder {
+
+        /** The stream holding the blocks. */
+        private final DataInputStream in;
+        /** The bytes of the string decoded last. */
+        private byte[] previous = new byte[64];
+        /** The number of bytes of the string decoded last. */
+        private int previousLength;
+
+        /**
+         * Create a decoder reading from a stream.
+         *
+         * @param in the stream, positioned at the start of a block
+         */
+        Decoder(final DataInputStream in) {
+            this.in = in;
+        }
+
+        /**
+         * Reads the first string of a block.
+         *
+         * @return the string
+         * @throws IOException if the stream cannot be read
+         */
+        String first() throws IOException {
+            return read(0, true);
+        }
+
+        /**
+         * Reads a string other than the first of a block.
+         *
+         * @return the string
+         * @throws IOException if the stream cannot be read or the strings are
+         *                     not in ascending order
+         */
+        String next() throws IOException {
+            int shared = readVarint(in);
+            if (shared > previousLength) {
+                throw new StreamCorruptedException("Invalid shared length");
+            }
+            return read(shared, false);
+        }
+
+        /**
+         * Reads the bytes that follow a shared prefix and decodes the string.
+         *
+         * @param shared the number of bytes shared with the string before
+         * @param first  whether the string is the first of its block
+         * @return the string
+         * @throws IOException if the stream cannot be read or the strings are
+         *                     not in ascending order
+         */
+        private String read(final int shared, final boolean first) throws IOException {
+            int suffix = readVarint(in);
+            int length = shared + suffix;
+            if (length < 0) {
+                throw new StreamCorruptedException("Invalid string length");
+            }
+            if (previous.length < length) {
+                previous = Arrays.copyOf(previous, Math.max(length, previous.length * 2));
+            }
+            byte boundary = shared < previousLength ? previous[shared] : 0;
+            in.readFully(previous, shared, suffix);
+
+            // Each string must be larger than the string before it
+            boolean larger = shared == previousLength
+                    ? suffix > 0
+                    : suffix > 0 && (previous[shared] & 0xFF) > (boundary & 0xFF);
+            if (!first && !larger) {
+                throw new StreamCorruptedException("Strings out of order");
+            }
+            previousLength = length;
+            return decode(previous, length);
+        }
+    }
+
+    /**
+     * Encodes the characters of a string.
+     *
+     * @param s     the string
+     * @param bytes the array to fill, with room for three bytes per character
+     * @return the number of bytes used
+     */
+    static int encode(final String s, final byte[] bytes) {
+        int length = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                bytes[length++] = (byte) c;
+            } else if (c < 0x800) {
+                bytes[length++] = (byte) (0xC0 | c >> 6);
+                bytes[length++] = (byte) (0x80 | c & 0x3F);
+            } else {
+                bytes[length++] = (byte) (0xE0 | c >> 12);
+                bytes[length++] = (byte) (0x80 | c >> 6 & 0x3F);
+                bytes[length++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Decodes the characters of a string.
+     *
+     * @param bytes  the encoded characters
+     * @param length the number of bytes to decode
+     * @return the string
+     * @throws StreamCorruptedException if the bytes are not a valid encoding
+     */
+    static String decode(final byte[] bytes, final int length)
+            throws StreamCorruptedException {
+        char[] chars = new char[length];
+        int count = 0;
+        int i = 0;
+        while (i < length) {
+            int b = bytes[i] & 0xFF;
+            if (b < 0x80) {
+                chars[count++] = (char) b;
+                i++;
+            } else if (b >= 0xC0 && b < 0xE0 && i + 1 < length) {
+                chars[count++] = (char) ((b & 0x1F) << 6 | bytes[i + 1] & 0x3F);
+                i += 2;
+            } else if (b >= 0xE0 && b < 0xF0 && i + 2 < length) {
+                chars[count++] = (char) ((b & 0x0F) << 12 | (bytes[i + 1] & 0x3F) << 6
+                        | bytes[i + 2] & 0x3F);
+                i += 3;
+            } else {
+                throw new StreamCorruptedException("Invalid character encoding");
+            }
+        }
+        return new String(chars, 0, count);
+    }
+
+    /**
+     * Writes a non-negative number in seven-bit groups, lowest first.
+     *
+     * @param out   the stream to write to
+     * @param value the number
+     * @return the number of bytes written
+     * @throws IOException if the stream cannot be written
+     */
+    private static int writeVarint(final DataOutputStream out, final int value)
+            throws IOException {
+        int written = 1;
+        int rest = value;
+        while ((rest & ~0x7F) != 0) {
+            out.writeByte(rest & 0x7F | 0x80);
+            rest >>>= 7;
+            written++;
+        }
+        out.writeByte(rest);
+        return written;
+    }
+
+    /**
+     * Reads a number written by {@link #writeVarint}.
+     *
+     * @param in the stream to read from
+     * @return the number
+     * @throws IOException if the stream cannot be read or the number is too long
+     */
+    static int readVarint(final DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if (b < 0x80) {
+                return value;
+            }
+        }
+        throw new StreamCorruptedException("Invalid number");
+    }
+
+    /**
+     * An input stream reading the remaining bytes of a buffer.
+     */
+    static final class BufferInputStream extends InputStream {
+
+        /** The buffer being read. */
+        private final ByteBuffer buffer;
+
+        /**
+         * Create a stream reading a buffer from its position.
+         *
+         * @param buffer the buffer, whose position advances as it is read
+         */
+        BufferInputStream(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+    }
+
+    /**
+     * An output stream writing into a buffer.
+     */
+    static final class BufferOutputStream extends OutputStream {
+
+        /** The buffer being written. */
+        private final ByteBuffer buffer;
+
+        /**
+         * Create a stream writing a buffer from its position.
+         *
+         * @param buffer the buffer, whose position advances as it is written
+         */
+        BufferOutputStream(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public void write(final int b) {
+            buffer.put((byte) b);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+            buffer.put(b, off, len);
+        }
+    }
+}
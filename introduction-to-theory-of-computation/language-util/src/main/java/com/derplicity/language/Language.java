@@ -0,0 +1,1042 @@
+package com.derplicity.language;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.Objects;
+
+/**
+ * Represents a finite language.
+ *
+ * @author Dr. Jody Paul
+ * @author Michael Kerl
+ * @version 1.3.1
+ */
+public final class Language implements Iterable<String>, java.io.Serializable {
+
+    private static final long serialVersionUID = 2L;
+
+    /** The empty string. */
+    private static final String EMPTY_STRING = "";
+    /** The empty set. */
+    private static final Set<String> EMPTY_SET = new TreeSet<String>();
+    /** Smallest number of strings added through the sorted bulk build. */
+    private static final int BULK_MINIMUM = 64;
+    /** Largest ratio of existing strings to added strings for the bulk build. */
+    private static final int BULK_RATIO = 16;
+
+    /**
+     * The ways a language can store its strings. Every store iterates in
+     * ascending order.
+     */
+    public enum Storage {
+        /** A balanced tree of whole strings ({@link TreeSet}). */
+        TREE_SET,
+        /** A radix tree sharing storage for common prefixes. */
+        TRIE,
+        /**
+         * A read-only front-coded file mapped into memory, opened with
+         * {@link Language#map(Path)}. Languages derived from a mapped language
+         * use {@link #TREE_SET}.
+         */
+        MAPPED,
+        /**
+         * A lock-free skip list ({@link ConcurrentSkipListSet}) that many threads
+         * may add to and search at once. Iteration is weakly consistent, and
+         * {@link Language#cardinality()} and {@link Language#hashCode()} walk the
+         * strings on every call.
+         */
+        CONCURRENT
+    }
+
+    /**
+     * A test applied to the strings of a concatenation before they are kept.
+     */
+    public interface StringPredicate {
+        /**
+         * Decides whether to keep a string.
+         * 
+         * @param s the string
+         * @return true to keep the string, false to drop it
+         */
+        boolean test(String s);
+    }
+
+    /** How this language stores its strings. */
+    private final Storage storage;
+    /** The set of strings in this language, initially empty. */
+    private transient Set<String> strings;
+    /**
+     * The sum of the hash codes of the strings, or 0 if not yet computed. As in
+     * String, one field holds both, so a thread never sees a stale sum marked as
+     * computed; a sum that really is 0 is just computed again.
+     */
+    private transient int stringsHash;
+    /** The filter answering most misses before the store, or null if none. */
+    private transient BloomFilter filter;
+
+    /**
+     * Create a language with no strings.
+     */
+    public Language() {
+        this(Storage.TREE_SET);
+    }
+
+    /**
+     * Create a language with no strings, stored in the given way.
+     * 
+     * @param storage how the language stores its strings
+     */
+    public Language(final Storage storage) {
+        this.storage = storage;
+        switch (storage) {
+            case TRIE:
+                strings = new TrieStringSet();
+                break;
+            case MAPPED:
+                throw new IllegalArgumentException("Mapped languages are opened with map");
+            case CONCURRENT:
+                strings = new ConcurrentSkipListSet<>();
+                break;
+            default:
+                strings = new TreeSet<>();
+                break;
+        }
+    }
+
+    /**
+     * Create a language over an existing store.
+     * 
+     * @param storage how the language stores its strings
+     * @param strings the store of the strings
+     */
+    private Language(final Storage storage, final Set<String> strings) {
+        this.storage = storage;
+        this.strings = strings;
+    }
+
+    /**
+     * Opens a file written by {@link #writeTo(Path)} as a read-only language
+     * without reading it into the heap. The file is mapped into memory and
+     * searched in place, so opening is immediate whatever its size; the file must
+     * not change while the language is in use and may be at most 2GB.
+     * 
+     * @param file the file to map
+     * @return a read-only language of the strings in the file
+     * @throws IOException if the file cannot be mapped or does not hold a
+     *                     language
+     */
+    public static Language map(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Language file too large to map: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new Language(Storage.MAPPED, new MappedStringSet(buffer));
+        }
+    }
+
+    /**
+     * Chooses the storage of a language derived from one with a given storage.
+     * 
+     * @param storage the storage of the original language
+     * @return the same storage, or {@link Storage#TREE_SET} for a mapped one
+     */
+    private static Storage writable(final Storage storage) {
+        return storage == Storage.MAPPED ? Storage.TREE_SET : storage;
+    }
+
+    /**
+     * Accesses the way this language stores its strings.
+     * 
+     * @return the storage of the language
+     */
+    public Storage storage() {
+        return storage;
+    }
+
+    /**
+     * Indicates if this language has no strings.
+     * 
+     * @return true if the language is equivalent to the empty set; false otherwise
+     */
+    public boolean isEmpty() {
+        return strings.isEmpty();
+    }
+
+    /**
+     * Accesses the number of strings (cardinality) in this language.
+     * 
+     * @return the cardinality of the language
+     */
+    public int cardinality() {
+        return strings.size();
+    }
+
+    /**
+     * Determines if a specified string is in this language.
+     * 
+     * @param candidate the string to check
+     * @return true if the string is in the language, false if not in the language
+     *         or the parameter is null
+     */
+    public boolean includes(final String candidate) {
+        if (candidate == null) {
+            return false;
+        }
+        if (filter == null) {
+            return strings.contains(candidate);
+        }
+        if (!filter.mightContain(candidate)) {
+            return false;
+        }
+        if (!strings.contains(candidate)) {
+            filter.falsePositive();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Puts a Bloom filter in front of the store, so most checks for strings not in
+     * the language return without searching the store. The filter holds the
+     * current strings and follows later additions; it is not copied to derived
+     * languages or serialized.
+     * 
+     * @param expectedStrings   the number of strings the filter is sized for
+     * @param falsePositiveRate the false positive rate wanted at that size,
+     *                          between 0 and 1 exclusive
+     * @return the new filter, whose counters describe later checks
+     * @throws UnsupportedOperationException if the language is concurrent
+     */
+    public BloomFilter enableBloomFilter(final int expectedStrings, final double falsePositiveRate) {
+        if (storage == Storage.CONCURRENT) {
+            throw new UnsupportedOperationException("Bloom filters are not thread-safe");
+        }
+        BloomFilter built = new BloomFilter(Math.max(expectedStrings, strings.size()),
+                falsePositiveRate);
+        for (String s : strings) {
+            built.add(s);
+        }
+        filter = built;
+        return built;
+    }
+
+    /**
+     * Removes the Bloom filter, if any, from in front of the store.
+     */
+    public void disableBloomFilter() {
+        filter = null;
+    }
+
+    /**
+     * Accesses the Bloom filter in front of the store.
+     * 
+     * @return the filter, or null if none is enabled
+     */
+    public BloomFilter bloomFilter() {
+        return filter;
+    }
+
+    /**
+     * Ensures that this language includes the given string (adds it if necessary).
+     * 
+     * @param memberString the string to be included in the language
+     * @return true if this language changed as a result of the call
+     * @throws UnsupportedOperationException if the language is mapped
+     */
+    public boolean addString(final String memberString) {
+        if (!strings.add(memberString)) {
+            return false;
+        }
+        // Concurrent languages hash on demand and have no filter, so writers share no fields
+        if (storage != Storage.CONCURRENT) {
+            track(memberString);
+        }
+        return true;
+    }
+
+    /**
+     * Ensures that this language includes all of the strings in the given parameter
+     * (adds any as necessary).
+     * 
+     * @param memberStrings the strings to be included in the language
+     * @return true if this language changed as a result of the call
+     * @throws UnsupportedOperationException if the language is mapped
+     */
+    public boolean addAllStrings(final Collection<String> memberStrings) {
+        int count = memberStrings.size();
+        if (storage != Storage.TREE_SET || count < BULK_MINIMUM
+                || (long) count * BULK_RATIO < strings.size()) {
+            boolean changed = false;
+            for (String s : memberStrings) {
+                changed |= addString(s);
+            }
+            return changed;
+        }
+
+        // Sort the new strings, then merge them with the store in one pass
+        String[] sorted = memberStrings.toArray(new String[count]);
+        Arrays.sort(sorted);
+        String[] added = distinct(sorted, sorted.length);
+        String[] merged = new String[strings.size() + added.length];
+        int size = 0;
+        int next = 0;
+        for (String existing : strings) {
+            while (next < added.length && added[next].compareTo(existing) <= 0) {
+                if (!added[next].equals(existing)) {
+                    merged[size++] = track(added[next]);
+                }
+                next++;
+            }
+            merged[size++] = existing;
+        }
+        while (next < added.length) {
+            merged[size++] = track(added[next++]);
+        }
+
+        if (size == strings.size()) {
+            return false;
+        }
+        strings = new TreeSet<>(new SortedStrings(merged, size));
+        return true;
+    }
+
+    /**
+     * Records a string being added to the store in the hash and filter.
+     * 
+     * @param added the string added
+     * @return the string added
+     */
+    private String track(final String added) {
+        int hash = stringsHash;
+        if (hash != 0) {
+            stringsHash = hash + added.hashCode();
+        }
+        if (filter != null) {
+            filter.add(added);
+        }
+        return added;
+    }
+
+    /**
+     * Provides an iterator over the strings in this language.
+     * 
+     * @return an iterator over the strings in this language in ascending order
+     */
+    public Iterator<String> iterator() {
+        if (storage == Storage.CONCURRENT) {
+            return strings.iterator();
+        }
+        return tracking(strings.iterator());
+    }
+
+    /**
+     * Provides an iterator over the strings in this language that start with a
+     * given prefix.
+     * 
+     * @param prefix the prefix of the strings to iterate
+     * @return an iterator over the matching strings in ascending order
+     */
+    public Iterator<String> prefixIterator(final String prefix) {
+        if (strings instanceof TrieStringSet) {
+            return tracking(((TrieStringSet) strings).prefixIterator(prefix));
+        }
+
+        // Matching strings are contiguous, starting at the prefix itself
+        final Iterator<String> tail = ((SortedSet<String>) strings).tailSet(prefix).iterator();
+        return new Iterator<String>() {
+            private String next = advance();
+
+            private String advance() {
+                if (tail.hasNext()) {
+                    String candidate = tail.next();
+                    if (candidate.startsWith(prefix)) {
+                        return candidate;
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public String next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                String current = next;
+                next = advance();
+                return current;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    /**
+     * Wraps an iterator over the strings so removals keep the hash up to date.
+     * 
+     * @param iterator the iterator over the strings
+     * @return an iterator removing through the given one
+     */
+    private Iterator<String> tracking(final Iterator<String> iterator) {
+        return new Iterator<String>() {
+            private String last;
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public String next() {
+                last = iterator.next();
+                return last;
+            }
+
+            @Override
+            public void remove() {
+                iterator.remove();
+                int hash = stringsHash;
+                if (hash != 0) {
+                    stringsHash = hash - last.hashCode();
+                }
+            }
+        };
+    }
+
+    /**
+     * Creates a language that is the concatenation of this language with another
+     * language.
+     * 
+     * @param language the language to be concatenated to this language
+     * @return the concatenation of this language with the parameter language
+     */
+    public Language concatenate(final Language language) {
+        Language newLang = new Language(writable(storage));
+
+        // Iterate through both language strings and concatenate
+        // each prefix string with every suffix string
+        Set<String> prefixes = strings;
+        Set<String> suffixes = language.strings;
+        for (String prefix : prefixes) {
+            for (String suffix : suffixes) {
+                newLang.addString(prefix + suffix);
+            }
+        }
+
+        return newLang;
+    }
+
+    /**
+     * Determines if a string is in the concatenation of this language with
+     * another language without building the concatenation, by checking each way
+     * of splitting the string into a prefix and a suffix.
+     * 
+     * @param language  the language concatenated to this language
+     * @param candidate the string to check
+     * @return true if the string is in the concatenation, false if not or the
+     *         parameter is null
+     */
+    public boolean concatenationIncludes(final Language language, final String candidate) {
+        if (candidate == null) {
+            return false;
+        }
+        for (int i = 0; i <= candidate.length(); i++) {
+            if (includes(candidate.substring(0, i)) && language.includes(candidate.substring(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates the strings of the concatenation of this language with another
+     * language whose lengths are within bounds. Strings of both languages are
+     * grouped by length, and only groups whose lengths add up to an allowed
+     * length are joined, so pairs that would be thrown away are never built.
+     * 
+     * @param language  the language to be concatenated to this language
+     * @param minLength the shortest string to keep
+     * @param maxLength the longest string to keep
+     * @return the strings of the concatenation within the bounds
+     */
+    public Language concatenate(final Language language, final int minLength,
+            final int maxLength) {
+        return concatenate(language, minLength, maxLength, null);
+    }
+
+    /**
+     * Creates the strings of the concatenation of this language with another
+     * language whose lengths are within bounds and which pass a test. Only
+     * pairs of strings whose lengths add up to an allowed length are built, and
+     * only those are tested.
+     * 
+     * @param language  the language to be concatenated to this language
+     * @param minLength the shortest string to keep
+     * @param maxLength the longest string to keep
+     * @param predicate the test the strings must pass, or null to keep all
+     * @return the strings of the concatenation within the bounds passing the test
+     */
+    public Language concatenate(final Language language, final int minLength,
+            final int maxLength, final StringPredicate predicate) {
+        Language newLang = new Language(writable(storage));
+        if (minLength > maxLength || isEmpty() || language.isEmpty()) {
+            return newLang;
+        }
+
+        NavigableMap<Integer, List<String>> prefixes = lengthBuckets();
+        NavigableMap<Integer, List<String>> suffixes = language.lengthBuckets();
+        List<String> kept = new ArrayList<>();
+        for (Map.Entry<Integer, List<String>> prefixBucket : prefixes.entrySet()) {
+            int prefixLength = prefixBucket.getKey();
+            if (prefixLength > maxLength) {
+                break;
+            }
+            // Only suffixes bringing the total within the bounds
+            int fromLength = (int) Math.max(0L, (long) minLength - prefixLength);
+            for (List<String> suffixBucket : suffixes.subMap(fromLength, true,
+                    maxLength - prefixLength, true).values()) {
+                for (String prefix : prefixBucket.getValue()) {
+                    for (String suffix : suffixBucket) {
+                        String s = prefix + suffix;
+                        if (predicate == null || predicate.test(s)) {
+                            kept.add(s);
+                        }
+                    }
+                }
+            }
+        }
+        newLang.addAllStrings(kept);
+        return newLang;
+    }
+
+    /**
+     * Groups the strings of this language by length.
+     * 
+     * @return the strings of each length, in ascending order, by length
+     */
+    private NavigableMap<Integer, List<String>> lengthBuckets() {
+        NavigableMap<Integer, List<String>> buckets = new TreeMap<>();
+        for (String s : strings) {
+            List<String> bucket = buckets.get(s.length());
+            if (bucket == null) {
+                bucket = new ArrayList<>();
+                buckets.put(s.length(), bucket);
+            }
+            bucket.add(s);
+        }
+        return buckets;
+    }
+
+    /**
+     * Creates a language that is the concatenation of this language with another
+     * language, splitting the prefixes across the threads of a shared
+     * {@link ForkJoinPool}.
+     * 
+     * @param language the language to be concatenated to this language
+     * @return the concatenation of this language with the parameter language
+     */
+    public Language concatenateParallel(final Language language) {
+        return concatenateParallel(language, SharedPool.POOL);
+    }
+
+    /**
+     * Creates a language that is the concatenation of this language with another
+     * language, splitting the prefixes across the threads of a given pool. Each
+     * task builds a sorted partial result for its prefixes, and partial results
+     * are merged pairwise as tasks are joined, so no lock is shared.
+     * 
+     * @param language the language to be concatenated to this language
+     * @param pool     the pool to run the concatenation in
+     * @return the concatenation of this language with the parameter language
+     */
+    public Language concatenateParallel(final Language language, final ForkJoinPool pool) {
+        String[] prefixes = strings.toArray(new String[strings.size()]);
+        String[] suffixes = language.strings.toArray(new String[language.strings.size()]);
+        if (prefixes.length == 0 || suffixes.length == 0) {
+            return new Language(writable(storage));
+        }
+        String[] sorted = pool.invoke(new ConcatenationTask(prefixes, suffixes, 0, prefixes.length));
+        return fromSorted(storage, Arrays.asList(sorted));
+    }
+
+    /**
+     * Holds the pool shared by parallel operations, created on first use.
+     */
+    private static final class SharedPool {
+        /** The shared pool, with one thread per processor. */
+        static final ForkJoinPool POOL = new ForkJoinPool();
+    }
+
+    /**
+     * Concatenates a range of prefixes with every suffix, returning the distinct
+     * results in ascending order.
+     */
+    private static final class ConcatenationTask extends RecursiveTask<String[]> {
+
+        private static final long serialVersionUID = 1L;
+
+        /** Largest number of strings a single task builds directly. */
+        private static final int THRESHOLD = 1 << 14;
+
+        /** The prefixes, in ascending order. */
+        private final String[] prefixes;
+        /** The suffixes, in ascending order. */
+        private final String[] suffixes;
+        /** The index of the first prefix of this task. */
+        private final int from;
+        /** The index after the last prefix of this task. */
+        private final int to;
+
+        /**
+         * Create a task for a range of prefixes.
+         * 
+         * @param prefixes the prefixes, in ascending order
+         * @param suffixes the suffixes, in ascending order
+         * @param from     the index of the first prefix of this task
+         * @param to       the index after the last prefix of this task
+         */
+        ConcatenationTask(final String[] prefixes, final String[] suffixes, final int from,
+                final int to) {
+            this.prefixes = prefixes;
+            this.suffixes = suffixes;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected String[] compute() {
+            if (to - from == 1 || (long) (to - from) * suffixes.length <= THRESHOLD) {
+                // Each prefix gives an ascending run, which the sort merges cheaply
+                String[] built = new String[(to - from) * suffixes.length];
+                int size = 0;
+                for (int i = from; i < to; i++) {
+                    for (String suffix : suffixes) {
+                        built[size++] = prefixes[i] + suffix;
+                    }
+                }
+                Arrays.sort(built);
+                return distinct(built, built.length);
+            }
+
+            int middle = (from + to) >>> 1;
+            ConcatenationTask left = new ConcatenationTask(prefixes, suffixes, from, middle);
+            left.fork();
+            String[] right = new ConcatenationTask(prefixes, suffixes, middle, to).compute();
+            return merge(left.join(), right);
+        }
+
+        /**
+         * Merges two sorted arrays of distinct strings, dropping duplicates.
+         * 
+         * @param a the first strings, in ascending order
+         * @param b the second strings, in ascending order
+         * @return the distinct strings of both, in ascending order
+         */
+        private static String[] merge(final String[] a, final String[] b) {
+            String[] merged = new String[a.length + b.length];
+            int i = 0;
+            int j = 0;
+            int size = 0;
+            while (i < a.length && j < b.length) {
+                int order = a[i].compareTo(b[j]);
+                merged[size++] = order <= 0 ? a[i] : b[j];
+                if (order <= 0) {
+                    i++;
+                }
+                if (order >= 0) {
+                    j++;
+                }
+            }
+            while (i < a.length) {
+                merged[size++] = a[i++];
+            }
+            while (j < b.length) {
+                merged[size++] = b[j++];
+            }
+            return size == merged.length ? merged : Arrays.copyOf(merged, size);
+        }
+    }
+
+    /**
+     * Creates a lazy view of the concatenation of this language with another
+     * language. Strings of the concatenation are only computed, in ascending
+     * order, as they are iterated.
+     * 
+     * @param language the language to be concatenated to this language
+     * @return a view of the concatenation of this language with the parameter
+     *         language
+     */
+    public LanguageConcatenation lazyConcatenate(final Language language) {
+        return new LanguageConcatenation(Arrays.asList(this, language));
+    }
+
+    /**
+     * Creates a language that is the union of this language with another
+     * language, by a single merge of the two ordered string sets.
+     * 
+     * @param language the language to be combined with this language
+     * @return the strings in either language
+     */
+    public Language union(final Language language) {
+        List<String> merged = new ArrayList<>(strings.size() + language.strings.size());
+        Iterator<String> left = strings.iterator();
+        Iterator<String> right = language.strings.iterator();
+        String a = left.hasNext() ? left.next() : null;
+        String b = right.hasNext() ? right.next() : null;
+        while (a != null || b != null) {
+            int order = a == null ? 1 : b == null ? -1 : a.compareTo(b);
+            if (order <= 0) {
+                merged.add(a);
+                a = left.hasNext() ? left.next() : null;
+            } else {
+                merged.add(b);
+            }
+            if (order >= 0) {
+                b = right.hasNext() ? right.next() : null;
+            }
+        }
+        return fromSorted(storage, merged);
+    }
+
+    /**
+     * Creates a language that is the intersection of this language with another
+     * language, by a single merge of the two ordered string sets.
+     * 
+     * @param language the language to be combined with this language
+     * @return the strings in both languages
+     */
+    public Language intersection(final Language language) {
+        List<String> merged = new ArrayList<>();
+        Iterator<String> left = strings.iterator();
+        Iterator<String> right = language.strings.iterator();
+        String a = left.hasNext() ? left.next() : null;
+        String b = right.hasNext() ? right.next() : null;
+        while (a != null && b != null) {
+            int order = a.compareTo(b);
+            if (order == 0) {
+                merged.add(a);
+            }
+            if (order <= 0) {
+                a = left.hasNext() ? left.next() : null;
+            }
+            if (order >= 0) {
+                b = right.hasNext() ? right.next() : null;
+            }
+        }
+        return fromSorted(storage, merged);
+    }
+
+    /**
+     * Creates a language that is the difference of this language and another
+     * language, by a single merge of the two ordered string sets.
+     * 
+     * @param language the language whose strings are excluded
+     * @return the strings in this language but not in the parameter language
+     */
+    public Language difference(final Language language) {
+        List<String> merged = new ArrayList<>();
+        Iterator<String> left = strings.iterator();
+        Iterator<String> right = language.strings.iterator();
+        String a = left.hasNext() ? left.next() : null;
+        String b = right.hasNext() ? right.next() : null;
+        while (a != null) {
+            int order = b == null ? -1 : a.compareTo(b);
+            if (order < 0) {
+                merged.add(a);
+            }
+            if (order <= 0) {
+                a = left.hasNext() ? left.next() : null;
+            }
+            if (order >= 0) {
+                b = right.hasNext() ? right.next() : null;
+            }
+        }
+        return fromSorted(storage, merged);
+    }
+
+    /**
+     * Creates a language that is this language concatenated with itself a number
+     * of times. The zeroth power is the language holding only the empty string.
+     * 
+     * @param k the number of copies of this language to concatenate
+     * @return the k-th power of this language
+     */
+    public Language power(final int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Negative power: " + k);
+        }
+        if (k == 0) {
+            return fromSorted(storage, Arrays.asList(EMPTY_STRING));
+        }
+        List<Language> factors = new ArrayList<>(k);
+        for (int i = 0; i < k; i++) {
+            factors.add(this);
+        }
+        return new LanguageConcatenation(factors).toLanguage();
+    }
+
+    /**
+     * Creates a language that is the Kleene star of this language, bounded to at
+     * most a given number of concatenated copies.
+     * 
+     * @param maxPower the largest power of this language to include
+     * @return the union of the zeroth through maxPower-th powers of this
+     *         language
+     */
+    public Language star(final int maxPower) {
+        if (maxPower < 0) {
+            throw new IllegalArgumentException("Negative power: " + maxPower);
+        }
+        Language power = power(0);
+        Language star = power;
+        for (int k = 1; k <= maxPower; k++) {
+            power = power.lazyConcatenate(this).toLanguage();
+            Language larger = star.union(power);
+            if (larger.cardinality() == star.cardinality()) {
+                // No new strings, so no higher power adds any either
+                break;
+            }
+            star = larger;
+        }
+        return star;
+    }
+
+    /**
+     * Removes adjacent duplicates from a sorted array.
+     * 
+     * @param sorted the strings, in ascending order
+     * @param length the number of strings of the array to use
+     * @return the distinct strings, in ascending order
+     */
+    private static String[] distinct(final String[] sorted, final int length) {
+        int size = 0;
+        for (int i = 0; i < length; i++) {
+            if (size == 0 || !sorted[i].equals(sorted[size - 1])) {
+                sorted[size++] = sorted[i];
+            }
+        }
+        return size == sorted.length ? sorted : Arrays.copyOf(sorted, size);
+    }
+
+    /**
+     * Creates a language from strings already in ascending order without
+     * duplicates, building a tree store in one linear pass.
+     * 
+     * @param storage how the language stores its strings
+     * @param sorted  the strings, in ascending order without duplicates
+     * @return the language of the strings
+     */
+    static Language fromSorted(final Storage storage, final List<String> sorted) {
+        Language language = new Language(writable(storage));
+        if (language.storage == Storage.TREE_SET) {
+            String[] array = sorted.toArray(new String[sorted.size()]);
+            language.strings = new TreeSet<>(new SortedStrings(array, array.length));
+        } else if (language.storage == Storage.CONCURRENT) {
+            String[] array = sorted.toArray(new String[sorted.size()]);
+            language.strings = new ConcurrentSkipListSet<>(new SortedStrings(array, array.length));
+        } else {
+            language.strings.addAll(sorted);
+        }
+        return language;
+    }
+
+    /**
+     * Compiles this language into its minimal acyclic deterministic automaton,
+     * which shares both prefixes and suffixes of the strings and checks
+     * membership in time proportional to the length of the candidate.
+     * 
+     * @return an immutable automaton accepting exactly the strings of this
+     *         language
+     */
+    public LanguageAutomaton compile() {
+        return LanguageAutomaton.compile(this);
+    }
+
+    /**
+     * Writes the strings of this language to a stream in a compact, front-coded
+     * binary form. The stream is not closed.
+     * 
+     * @param out the stream to write to
+     * @throws IOException if the stream cannot be written
+     */
+    public void writeTo(final OutputStream out) throws IOException {
+        Collection<String> written = strings;
+        if (storage == Storage.CONCURRENT) {
+            // The count is written first, so write a snapshot other threads cannot change
+            written = Arrays.asList(strings.toArray(new String[0]));
+        }
+        FrontCodedFormat.write(written, out, FrontCodedFormat.DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Writes the strings of this language to a file in a compact, front-coded
+     * binary form, replacing the file if it exists.
+     * 
+     * @param file the file to write to
+     * @throws IOException if the file cannot be written
+     */
+    public void writeTo(final Path file) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16)) {
+            writeTo(out);
+        }
+    }
+
+    /**
+     * Writes the strings of this language into a buffer in a compact,
+     * front-coded binary form, starting at the position of the buffer.
+     * 
+     * @param buffer the buffer to write to
+     * @throws java.nio.BufferOverflowException if the buffer is too small
+     */
+    public void writeTo(final ByteBuffer buffer) {
+        try {
+            writeTo(new FrontCodedFormat.BufferOutputStream(buffer));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Reads a language written by {@link #writeTo(OutputStream)}, consuming
+     * exactly the bytes that were written. The stream is not closed.
+     * 
+     * @param in the stream to read from
+     * @return the language read
+     * @throws IOException if the stream cannot be read or does not hold a
+     *                     language
+     */
+    public static Language readFrom(final InputStream in) throws IOException {
+        return fromSorted(Storage.TREE_SET, Arrays.asList(FrontCodedFormat.read(in)));
+    }
+
+    /**
+     * Reads a language from a file written by {@link #writeTo(Path)}.
+     * 
+     * @param file the file to read from
+     * @return the language read
+     * @throws IOException if the file cannot be read or does not hold a language
+     */
+    public static Language readFrom(final Path file) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file), 1 << 16)) {
+            return readFrom(in);
+        }
+    }
+
+    /**
+     * Reads a language written by {@link #writeTo(ByteBuffer)}, starting at the
+     * position of the buffer.
+     * 
+     * @param buffer the buffer to read from
+     * @return the language read
+     * @throws IOException if the buffer does not hold a language
+     */
+    public static Language readFrom(final ByteBuffer buffer) throws IOException {
+        return readFrom(new FrontCodedFormat.BufferInputStream(buffer));
+    }
+
+    /**
+     * Serializes the strings in the front-coded form rather than as a set.
+     * 
+     * @param out the stream to write to
+     * @throws IOException if the stream cannot be written
+     */
+    private void writeObject(final ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        writeTo(out);
+    }
+
+    /**
+     * Restores the strings from the front-coded form.
+     * 
+     * @param in the stream to read from
+     * @throws IOException            if the stream cannot be read
+     * @throws ClassNotFoundException if the storage class cannot be found
+     */
+    private void readObject(final ObjectInputStream in)
+            throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        strings = fromSorted(storage, Arrays.asList(FrontCodedFormat.read(in))).strings;
+    }
+
+    /**
+     * Replaces a deserialized mapped language, which no longer has a file, with
+     * one held in the heap.
+     * 
+     * @return the language to use
+     */
+    private Object readResolve() {
+        return storage == Storage.MAPPED ? new Language(Storage.TREE_SET, strings) : this;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj)
+            return true;
+
+        if (obj == null || getClass() != obj.getClass())
+            return false;
+
+        // Sizes and cached hashes tell most unequal languages apart cheaply
+        Language language = (Language) obj;
+        if (strings.size() != language.strings.size() || hashCode() != language.hashCode()) {
+            return false;
+        }
+        return Objects.equals(strings, language.strings);
+    }
+
+    /**
+     * Computes the hash code once, then keeps it up to date as strings are added
+     * and removed, so later calls take constant time. Concurrent languages
+     * compute it on every call.
+     */
+    @Override
+    public int hashCode() {
+        // Read the field once, so a racing update cannot change it between uses
+        int hash = stringsHash;
+        if (hash == 0) {
+            for (String s : strings) {
+                hash += s.hashCode();
+            }
+            // Other threads may be adding to a concurrent language, so its sum is not kept
+            if (storage != Storage.CONCURRENT) {
+                stringsHash = hash;
+            }
+        }
+        // Same value as Objects.hash(strings)
+        return 31 + hash;
+    }
+}
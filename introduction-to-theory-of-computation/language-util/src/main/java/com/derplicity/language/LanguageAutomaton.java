@@ -0,0 +1,552 @@
+package com.derplicity.language;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Represents a finite language as an immutable, minimal, acyclic deterministic
+ * finite automaton (a DAFSA), sharing both the prefixes and the suffixes of its
+ * strings.
+ * <p>
+ * Checking membership follows one transition per character, found by binary
+ * search over the sorted labels of the current state, with no hashing or string
+ * comparison. The concatenation of automata is kept symbolic, as a chain of
+ * automata, rather than building the cross product of their strings.
+ * </p>
+ *
+ * @author Michael Kerl
+ * @version 1.0
+ */
+public final class LanguageAutomaton implements Iterable<String>, java.io.Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /** The automata whose languages are concatenated, in order. */
+    private final Graph[] factors;
+
+    /**
+     * Create the concatenation of the given automata.
+     *
+     * @param factors the automata to concatenate, in order
+     */
+    private LanguageAutomaton(final Graph[] factors) {
+        this.factors = factors;
+    }
+
+    /**
+     * Compiles a language into its minimal automaton.
+     *
+     * @param language the language to compile
+     * @return the minimal automaton accepting exactly the strings of the language
+     */
+    static LanguageAutomaton compile(final Language language) {
+        return new LanguageAutomaton(new Graph[] {Graph.build(language)});
+    }
+
+    /**
+     * Determines if a specified string is in the language of this automaton.
+     *
+     * @param candidate the string to check
+     * @return true if the string is accepted, false if not or the parameter is
+     *         null
+     */
+    public boolean includes(final String candidate) {
+        if (candidate == null) {
+            return false;
+        }
+        if (factors.length == 1) {
+            return factors[0].accepts(candidate);
+        }
+
+        // Track the states reached in every automaton of the chain, entering the
+        // next automaton whenever one accepts
+        int[][] active = new int[factors.length][];
+        int[] activeCount = new int[factors.length];
+        for (int f = 0; f < factors.length; f++) {
+            active[f] = new int[4];
+        }
+        add(active, activeCount, 0, factors[0].root);
+        for (int i = 0; i < candidate.length(); i++) {
+            char c = candidate.charAt(i);
+            int[][] next = new int[factors.length][];
+            int[] nextCount = new int[factors.length];
+            for (int f = 0; f < factors.length; f++) {
+                next[f] = new int[Math.max(4, activeCount[f])];
+            }
+            boolean any = false;
+            for (int f = 0; f < factors.length; f++) {
+                for (int j = 0; j < activeCount[f]; j++) {
+                    int target = factors[f].transition(active[f][j], c);
+                    if (target >= 0) {
+                        add(next, nextCount, f, target);
+                        any = true;
+                    }
+                }
+            }
+            if (!any) {
+                return false;
+            }
+            active = next;
+            activeCount = nextCount;
+        }
+        int last = factors.length - 1;
+        for (int j = 0; j < activeCount[last]; j++) {
+            if (factors[last].accepting[active[last][j]]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds a state to the active states of an automaton of the chain, and the
+     * start of the next automaton if the state accepts.
+     *
+     * @param active the active states of each automaton
+     * @param count  the number of active states of each automaton
+     * @param f      the index of the automaton
+     * @param state  the state to add
+     */
+    private void add(final int[][] active, final int[] count, final int f, final int state) {
+        for (int j = 0; j < count[f]; j++) {
+            if (active[f][j] == state) {
+                return;
+            }
+        }
+        if (count[f] == active[f].length) {
+            active[f] = Arrays.copyOf(active[f], count[f] * 2);
+        }
+        active[f][count[f]++] = state;
+        if (factors[f].accepting[state] && f + 1 < factors.length) {
+            add(active, count, f + 1, factors[f + 1].root);
+        }
+    }
+
+    /**
+     * Creates an automaton for the concatenation of this automaton's language with
+     * another's, by chaining the automata.
+     *
+     * @param automaton the automaton to be concatenated to this automaton
+     * @return the automaton of the concatenation
+     */
+    public LanguageAutomaton concatenate(final LanguageAutomaton automaton) {
+        Graph[] chained = Arrays.copyOf(factors, factors.length + automaton.factors.length);
+        System.arraycopy(automaton.factors, 0, chained, factors.length, automaton.factors.length);
+        return new LanguageAutomaton(chained);
+    }
+
+    /**
+     * Accesses the number of strings accepted by this automaton. Immediate for a
+     * compiled language; a chain of automata is enumerated to count its distinct
+     * strings.
+     *
+     * @return the cardinality of the language
+     */
+    public int cardinality() {
+        if (factors.length == 1) {
+            return (int) factors[0].wordCount[factors[0].root];
+        }
+        return toLanguage().cardinality();
+    }
+
+    /**
+     * Accesses the number of states of this automaton.
+     *
+     * @return the total number of states of the chained automata
+     */
+    public int stateCount() {
+        int states = 0;
+        for (Graph factor : factors) {
+            states += factor.accepting.length;
+        }
+        return states;
+    }
+
+    /**
+     * Provides an iterator over the strings accepted by this automaton.
+     *
+     * @return an iterator over the strings in ascending order
+     */
+    public Iterator<String> iterator() {
+        if (factors.length == 1) {
+            return factors[0].iterator();
+        }
+        return chain().iterator();
+    }
+
+    /**
+     * Creates a language holding every string accepted by this automaton.
+     *
+     * @return the language of this automaton
+     */
+    public Language toLanguage() {
+        if (factors.length == 1) {
+            Language language = new Language();
+            for (String s : this) {
+                language.addString(s);
+            }
+            return language;
+        }
+        return chain().toLanguage();
+    }
+
+    /**
+     * Creates the lazy concatenation of the languages of the chained automata.
+     *
+     * @return the lazy concatenation
+     */
+    private LanguageConcatenation chain() {
+        List<Language> languages = new ArrayList<>();
+        for (Graph factor : factors) {
+            languages.add(new LanguageAutomaton(new Graph[] {factor}).toLanguage());
+        }
+        return new LanguageConcatenation(languages);
+    }
+
+    /**
+     * A minimal acyclic automaton stored in flat arrays. The transitions of state
+     * s are at indices firstEdge[s] to firstEdge[s + 1] - 1, sorted by label.
+     */
+    private static final class Graph implements java.io.Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        /** The start state. */
+        private final int root;
+        /** The index of the first transition of each state. */
+        private final int[] firstEdge;
+        /** The label of each transition. */
+        private final char[] labels;
+        /** The target state of each transition. */
+        private final int[] targets;
+        /** Whether each state accepts. */
+        private final boolean[] accepting;
+        /** The number of strings accepted from each state. */
+        private final long[] wordCount;
+
+        /**
+         * Create an automaton from its arrays.
+         *
+         * @param root      the start state
+         * @param firstEdge the index of the first transition of each state
+         * @param labels    the label of each transition
+         * @param targets   the target state of each transition
+         * @param accepting whether each state accepts
+         * @param wordCount the number of strings accepted from each state
+         */
+        private Graph(final int root, final int[] firstEdge, final char[] labels,
+                final int[] targets, final boolean[] accepting, final long[] wordCount) {
+            this.root = root;
+            this.firstEdge = firstEdge;
+            this.labels = labels;
+            this.targets = targets;
+            this.accepting = accepting;
+            this.wordCount = wordCount;
+        }
+
+        /**
+         * Finds the target of a transition.
+         *
+         * @param state the source state
+         * @param c     the label
+         * @return the target state, or -1 if there is no such transition
+         */
+        int transition(final int state, final char c) {
+            int low = firstEdge[state];
+            int high = firstEdge[state + 1] - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                if (labels[middle] < c) {
+                    low = middle + 1;
+                } else if (labels[middle] > c) {
+                    high = middle - 1;
+                } else {
+                    return targets[middle];
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Determines if this automaton accepts a string.
+         *
+         * @param s the string
+         * @return true if the string is accepted
+         */
+        boolean accepts(final String s) {
+            int state = root;
+            for (int i = 0; i < s.length() && state >= 0; i++) {
+                state = transition(state, s.charAt(i));
+            }
+            return state >= 0 && accepting[state];
+        }
+
+        /**
+         * Provides an iterator over the accepted strings, by a depth-first walk
+         * visiting each state before its transitions in label order.
+         *
+         * @return an iterator over the strings in ascending order
+         */
+        Iterator<String> iterator() {
+            return new Iterator<String>() {
+                private int[] states = new int[16];
+                private int[] edges = new int[16];
+                private int depth;
+                private final StringBuilder path = new StringBuilder();
+                private String next;
+
+                {
+                    states[0] = root;
+                    edges[0] = firstEdge[root];
+                    depth = 1;
+                    if (accepting[root]) {
+                        next = "";
+                    }
+                }
+
+                @Override
+                public boolean hasNext() {
+                    while (next == null && depth > 0) {
+                        int state = states[depth - 1];
+                        int edge = edges[depth - 1];
+                        if (edge < firstEdge[state + 1]) {
+                            edges[depth - 1]++;
+                            if (depth == states.length) {
+                                states = Arrays.copyOf(states, depth * 2);
+                                edges = Arrays.copyOf(edges, depth * 2);
+                            }
+                            int target = targets[edge];
+                            states[depth] = target;
+                            edges[depth] = firstEdge[target];
+                            depth++;
+                            path.append(labels[edge]);
+                            if (accepting[target]) {
+                                next = path.toString();
+                            }
+                        } else {
+                            depth--;
+                            if (path.length() > 0) {
+                                path.setLength(path.length() - 1);
+                            }
+                        }
+                    }
+                    return next != null;
+                }
+
+                @Override
+                public String next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    String current = next;
+                    next = null;
+                    return current;
+                }
+
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        /**
+         * Builds the minimal automaton of a language, adding its strings in
+         * ascending order and merging each finished state with an equivalent
+         * registered one (Daciuk's incremental algorithm for sorted input).
+         *
+         * @param language the language
+         * @return the minimal automaton
+         */
+        static Graph build(final Language language) {
+            Map<BuildState, BuildState> register = new HashMap<>();
+            List<BuildState> path = new ArrayList<>();
+            path.add(new BuildState());
+            String previous = "";
+
+            for (String word : language) {
+                int common = 0;
+                int limit = Math.min(word.length(), previous.length());
+                while (common < limit && word.charAt(common) == previous.charAt(common)) {
+                    common++;
+                }
+                minimize(path, register, common);
+                for (int i = common; i < word.length(); i++) {
+                    BuildState state = new BuildState();
+                    path.get(i).addTransition(word.charAt(i), state);
+                    path.add(state);
+                }
+                path.get(word.length()).terminal = true;
+                previous = word;
+            }
+            minimize(path, register, 0);
+
+            return freeze(path.get(0));
+        }
+
+        /**
+         * Replaces the states on the current path below a given depth with their
+         * registered equivalents, or registers them.
+         *
+         * @param path     the states along the previously added string
+         * @param register the registered states
+         * @param depth    the number of states of the path to keep open
+         */
+        private static void minimize(final List<BuildState> path,
+                final Map<BuildState, BuildState> register, final int depth) {
+            for (int i = path.size() - 1; i > depth; i--) {
+                BuildState state = path.remove(i);
+                BuildState equivalent = register.get(state);
+                if (equivalent != null) {
+                    path.get(i - 1).targets[path.get(i - 1).count - 1] = equivalent;
+                } else {
+                    register.put(state, state);
+                }
+            }
+        }
+
+        /**
+         * Numbers the states of a built automaton, children before parents, and
+         * copies it into flat arrays.
+         *
+         * @param start the start state
+         * @return the automaton in flat arrays
+         */
+        private static Graph freeze(final BuildState start) {
+            Map<BuildState, Integer> ids = new IdentityHashMap<>();
+            List<BuildState> order = new ArrayList<>();
+            int edgeCount = number(start, ids, order);
+
+            int[] firstEdge = new int[order.size() + 1];
+            char[] labels = new char[edgeCount];
+            int[] targets = new int[edgeCount];
+            boolean[] accepting = new boolean[order.size()];
+            long[] wordCount = new long[order.size()];
+            int edge = 0;
+            for (int id = 0; id < order.size(); id++) {
+                BuildState state = order.get(id);
+                firstEdge[id] = edge;
+                accepting[id] = state.terminal;
+                long words = state.terminal ? 1 : 0;
+                for (int i = 0; i < state.count; i++) {
+                    labels[edge] = state.labels[i];
+                    targets[edge] = ids.get(state.targets[i]);
+                    words += wordCount[targets[edge]];
+                    edge++;
+                }
+                wordCount[id] = words;
+            }
+            firstEdge[order.size()] = edge;
+            return new Graph(ids.get(start), firstEdge, labels, targets, accepting, wordCount);
+        }
+
+        /**
+         * Numbers the states reachable from a state in post-order.
+         *
+         * @param start the state to number from
+         * @param ids   the numbers assigned so far
+         * @param order the states in order of their numbers
+         * @return the number of transitions of the newly numbered states
+         */
+        private static int number(final BuildState start, final Map<BuildState, Integer> ids,
+                final List<BuildState> order) {
+            // Iterative post-order walk, as strings may be long
+            int edges = 0;
+            List<BuildState> stack = new ArrayList<>();
+            List<Integer> nextChild = new ArrayList<>();
+            stack.add(start);
+            nextChild.add(0);
+            ids.put(start, -1);
+            while (!stack.isEmpty()) {
+                int top = stack.size() - 1;
+                BuildState state = stack.get(top);
+                int child = nextChild.get(top);
+                if (child < state.count) {
+                    nextChild.set(top, child + 1);
+                    BuildState target = state.targets[child];
+                    if (!ids.containsKey(target)) {
+                        ids.put(target, -1);
+                        stack.add(target);
+                        nextChild.add(0);
+                    }
+                } else {
+                    stack.remove(top);
+                    nextChild.remove(top);
+                    ids.put(state, order.size());
+                    order.add(state);
+                    edges += state.count;
+                }
+            }
+            return edges;
+        }
+    }
+
+    /**
+     * A mutable state used while building an automaton. Once registered, two
+     * states are equivalent when they agree on acceptance and have the same
+     * transitions to the same (registered) states.
+     */
+    private static final class BuildState {
+
+        /** Whether the state accepts. */
+        private boolean terminal;
+        /** The transition labels, in ascending order. */
+        private char[] labels = new char[2];
+        /** The transition targets. */
+        private BuildState[] targets = new BuildState[2];
+        /** The number of transitions. */
+        private int count;
+
+        /**
+         * Adds a transition after all existing ones.
+         *
+         * @param label  the label, larger than all existing labels
+         * @param target the target state
+         */
+        void addTransition(final char label, final BuildState target) {
+            if (count == labels.length) {
+                labels = Arrays.copyOf(labels, count * 2);
+                targets = Arrays.copyOf(targets, count * 2);
+            }
+            labels[count] = label;
+            targets[count] = target;
+            count++;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof BuildState)) {
+                return false;
+            }
+            BuildState other = (BuildState) obj;
+            if (terminal != other.terminal || count != other.count) {
+                return false;
+            }
+            for (int i = 0; i < count; i++) {
+                if (labels[i] != other.labels[i] || targets[i] != other.targets[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = terminal ? 1 : 0;
+            for (int i = 0; i < count; i++) {
+                hash = 31 * hash + labels[i];
+                hash = 31 * hash + System.identityHashCode(targets[i]);
+            }
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.derplicity.language;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Represents the concatenation of a sequence of languages without computing it.
+ * <p>
+ * Strings are produced in ascending order only as they are requested, by merging
+ * the (already sorted) suffixes of each prefix, so reading the first few strings
+ * or checking membership never builds the full cross product. The concatenated
+ * languages are read, not copied, so they should not change while this view is
+ * in use.
+ * </p>
+ *
+ * @author Michael Kerl
+ * @version 1.0
+ */
+public final class LanguageConcatenation implements Iterable<String> {
+
+    /** The languages being concatenated, in order. */
+    private final List<Language> factors;
+
+    /**
+     * Create the concatenation of the given languages.
+     *
+     * @param factors the languages to concatenate, in order
+     */
+    LanguageConcatenation(final List<Language> factors) {
+        this.factors = Collections.unmodifiableList(new ArrayList<>(factors));
+    }
+
+    /**
+     * Creates a view that is the concatenation of this view with another language.
+     *
+     * @param language the language to be concatenated to this view
+     * @return the lazy concatenation of this view with the parameter language
+     */
+    public LanguageConcatenation concatenate(final Language language) {
+        List<Language> extended = new ArrayList<>(factors);
+        extended.add(language);
+        return new LanguageConcatenation(extended);
+    }
+
+    /**
+     * Indicates if this concatenation has no strings.
+     *
+     * @return true if any of the concatenated languages is empty; false otherwise
+     */
+    public boolean isEmpty() {
+        for (Language factor : factors) {
+            if (factor.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Determines if a specified string is in this concatenation, by checking which
+     * split points of the string each language can reach.
+     *
+     * @param candidate the string to check
+     * @return true if the string is in the concatenation, false if not or the
+     *         parameter is null
+     */
+    public boolean includes(final String candidate) {
+        if (candidate == null) {
+            return false;
+        }
+
+        // Positions of the candidate reachable after each language
+        int length = candidate.length();
+        BitSet reached = new BitSet(length + 1);
+        reached.set(0);
+        for (Language factor : factors) {
+            BitSet next = new BitSet(length + 1);
+            for (int i = reached.nextSetBit(0); i >= 0; i = reached.nextSetBit(i + 1)) {
+                for (int j = i; j <= length; j++) {
+                    if (!next.get(j) && factor.includes(candidate.substring(i, j))) {
+                        next.set(j);
+                    }
+                }
+            }
+            if (next.isEmpty()) {
+                return false;
+            }
+            reached = next;
+        }
+        return reached.get(length);
+    }
+
+    /**
+     * Provides an iterator over the strings in this concatenation, computing each
+     * string only when it is requested.
+     *
+     * @return an iterator over the distinct strings in ascending order
+     */
+    public Iterator<String> iterator() {
+        if (isEmpty()) {
+            return Collections.<String>emptyList().iterator();
+        }
+        return iterator(0);
+    }
+
+    /**
+     * Creates a language holding every string of this concatenation. The strings
+     * arrive in order, so the language is built in one linear pass.
+     *
+     * @return the materialized concatenation
+     */
+    public Language toLanguage() {
+        List<String> sorted = new ArrayList<>();
+        for (String s : this) {
+            sorted.add(s);
+        }
+        return Language.fromSorted(factors.get(0).storage(), sorted);
+    }
+
+    /**
+     * Provides an ordered iterator over the concatenation of the languages from a
+     * given position on.
+     *
+     * @param from the index of the first language to concatenate
+     * @return an iterator over the distinct strings in ascending order
+     */
+    private Iterator<String> iterator(final int from) {
+        if (from == factors.size() - 1) {
+            return factors.get(from).iterator();
+        }
+        return new MergingIterator(from);
+    }
+
+    /**
+     * Merges, for every prefix of one language, the sorted strings formed with the
+     * concatenation of the languages after it.
+     * <p>
+     * Every string starting with a prefix is at least as large as the prefix, and
+     * prefixes arrive in ascending order, so a prefix only needs to be opened once
+     * the smallest pending string is not smaller than it. At any time only the
+     * prefixes whose strings can still interleave are open.
+     * </p>
+     */
+    private final class MergingIterator implements Iterator<String> {
+
+        /** The index of the language supplying the prefixes. */
+        private final int from;
+        /** The prefixes not yet opened, in ascending order. */
+        private final Iterator<String> prefixes;
+        /** The open prefixes, ordered by their current string. */
+        private final PriorityQueue<Cursor> open;
+        /** The next prefix to open, or null if all are open. */
+        private String nextPrefix;
+        /** The string to be returned next, or null if not yet computed. */
+        private String next;
+        /** The string returned last, used to skip duplicates. */
+        private String last;
+
+        /**
+         * Create an iterator over the concatenation from a given language on.
+         *
+         * @param from the index of the language supplying the prefixes
+         */
+        MergingIterator(final int from) {
+            this.from = from;
+            this.prefixes = factors.get(from).iterator();
+            this.open = new PriorityQueue<>(11, new Comparator<Cursor>() {
+                @Override
+                public int compare(final Cursor a, final Cursor b) {
+                    return a.current.compareTo(b.current);
+                }
+            });
+            this.nextPrefix = prefixes.hasNext() ? prefixes.next() : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null) {
+                // Open every prefix that could produce a string below the smallest pending one
+                while (nextPrefix != null
+                        && (open.isEmpty() || nextPrefix.compareTo(open.peek().current) <= 0)) {
+                    open.add(new Cursor(nextPrefix, iterator(from + 1)));
+                    nextPrefix = prefixes.hasNext() ? prefixes.next() : null;
+                }
+                if (open.isEmpty()) {
+                    return false;
+                }
+
+                Cursor smallest = open.poll();
+                String candidate = smallest.current;
+                if (smallest.advance()) {
+                    open.add(smallest);
+                }
+                if (!candidate.equals(last)) {
+                    next = candidate;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            last = next;
+            next = null;
+            return last;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * The strings formed by one prefix with an ordered sequence of suffixes.
+     */
+    private static final class Cursor {
+
+        /** The shared prefix. */
+        private final String prefix;
+        /** The suffixes not yet used, in ascending order. */
+        private final Iterator<String> suffixes;
+        /** The current string. */
+        private String current;
+
+        /**
+         * Create a cursor positioned on its first string.
+         *
+         * @param prefix   the shared prefix
+         * @param suffixes the ordered suffixes, which must not be empty
+         */
+        Cursor(final String prefix, final Iterator<String> suffixes) {
+            this.prefix = prefix;
+            this.suffixes = suffixes;
+            advance();
+        }
+
+        /**
+         * Move to the next string.
+         *
+         * @return true if there is a next string, false if this cursor is done
+         */
+        boolean advance() {
+            if (!suffixes.hasNext()) {
+                return false;
+            }
+            current = prefix + suffixes.next();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.derplicity.language;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.util.AbstractSet;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.SortedSet;
+
+/**
+ * A read-only sorted set of strings kept in a buffer in the front-coded form of
+ * {@link FrontCodedFormat}, usually a file mapped into memory.
+ * <p>
+ * Nothing is decoded up front. A string is found by a binary search over the
+ * first strings of the blocks, then a scan of a single block, so only a handful
+ * of strings are ever decoded per lookup and the data itself stays off the heap.
+ * Each operation reads its own view of the buffer, so the set may be shared
+ * between threads.
+ * </p>
+ *
+ * @author Michael Kerl
+ * @version 1.0
+ */
+final class MappedStringSet extends AbstractSet<String> implements SortedSet<String> {
+
+    /** The front-coded strings. */
+    private final ByteBuffer data;
+    /** The number of strings per block. */
+    private final int blockSize;
+    /** The number of strings in the buffer. */
+    private final int count;
+    /** The position of the block index in the buffer. */
+    private final int indexOffset;
+    /** The index of the first string in this view. */
+    private final int from;
+    /** The index after the last string in this view. */
+    private final int to;
+
+    /**
+     * Create a set over a buffer holding strings in the front-coded form.
+     *
+     * @param data the buffer, from its start to its limit
+     * @throws IOException if the buffer does not hold strings in that form
+     */
+    MappedStringSet(final ByteBuffer data) throws IOException {
+        if (data.limit() < FrontCodedFormat.HEADER_BYTES + FrontCodedFormat.TRAILER_BYTES
+                || data.getInt(0) != FrontCodedFormat.MAGIC) {
+            throw new StreamCorruptedException("Not a language");
+        }
+        if (data.get(4) != FrontCodedFormat.VERSION) {
+            throw new StreamCorruptedException("Unsupported language version");
+        }
+        this.data = data;
+        this.blockSize = data.getInt(5);
+        this.count = data.getInt(9);
+        long index = data.getLong(data.limit() - FrontCodedFormat.TRAILER_BYTES);
+        long blocks = blockSize <= 0 ? -1 : (count + (long) blockSize - 1) / blockSize;
+        if (count < 0 || blocks < 0 || index < FrontCodedFormat.HEADER_BYTES
+                || index + 8 * blocks != data.limit() - FrontCodedFormat.TRAILER_BYTES) {
+            throw new StreamCorruptedException("Invalid language header");
+        }
+        this.indexOffset = (int) index;
+        this.from = 0;
+        this.to = count;
+    }
+
+    /**
+     * Create a view of a range of the strings of another set.
+     *
+     * @param set  the set holding the strings
+     * @param from the index of the first string to include
+     * @param to   the index after the last string to include
+     */
+    private MappedStringSet(final MappedStringSet set, final int from, final int to) {
+        this.data = set.data;
+        this.blockSize = set.blockSize;
+        this.count = set.count;
+        this.indexOffset = set.indexOffset;
+        this.from = from;
+        this.to = Math.max(from, to);
+    }
+
+    @Override
+    public int size() {
+        return to - from;
+    }
+
+    @Override
+    public boolean contains(final Object o) {
+        if (!(o instanceof String)) {
+            return false;
+        }
+        String s = (String) o;
+        Cursor cursor = seek(s);
+        return cursor.index < to && cursor.index >= from && s.equals(cursor.current);
+    }
+
+    @Override
+    public boolean add(final String s) {
+        throw new UnsupportedOperationException("Mapped languages are read-only");
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<String>() {
+            private final Cursor cursor = new Cursor(from);
+
+            @Override
+            public boolean hasNext() {
+                return cursor.index < to;
+            }
+
+            @Override
+            public String next() {
+                if (cursor.index >= to) {
+                    throw new NoSuchElementException();
+                }
+                String current = cursor.current;
+                cursor.advance();
+                return current;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("Mapped languages are read-only");
+            }
+        };
+    }
+
+    @Override
+    public Comparator<? super String> comparator() {
+        return null;
+    }
+
+    @Override
+    public SortedSet<String> subSet(final String fromElement, final String toElement) {
+        return new MappedStringSet(this, indexOf(fromElement), indexOf(toElement));
+    }
+
+    @Override
+    public SortedSet<String> headSet(final String toElement) {
+        return new MappedStringSet(this, from, indexOf(toElement));
+    }
+
+    @Override
+    public SortedSet<String> tailSet(final String fromElement) {
+        return new MappedStringSet(this, indexOf(fromElement), to);
+    }
+
+    @Override
+    public String first() {
+        if (from == to) {
+            throw new NoSuchElementException();
+        }
+        return new Cursor(from).current;
+    }
+
+    @Override
+    public String last() {
+        if (from == to) {
+            throw new NoSuchElementException();
+        }
+        return new Cursor(to - 1).current;
+    }
+
+    /**
+     * Finds the index of the first string in this view not smaller than a given
+     * string.
+     *
+     * @param s the string
+     * @return the index, between from and to
+     */
+    private int indexOf(final String s) {
+        return Math.min(to, Math.max(from, seek(s).index));
+    }
+
+    /**
+     * Positions a cursor on the first string of the whole buffer not smaller than
+     * a given string.
+     *
+     * @param s the string
+     * @return the cursor, whose index is the count if every string is smaller
+     */
+    private Cursor seek(final String s) {
+        // Find the last block whose first string is not larger than s
+        byte[] key = new byte[3 * s.length()];
+        int keyLength = FrontCodedFormat.encode(s, key);
+        int low = 0;
+        int high = (count + blockSize - 1) / blockSize - 1;
+        int block = 0;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (compareFirst(middle, key, keyLength) <= 0) {
+                block = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+
+        Cursor cursor = new Cursor(block * blockSize);
+        while (cursor.index < count && cursor.current.compareTo(s) < 0) {
+            cursor.advance();
+        }
+        return cursor;
+    }
+
+    /**
+     * Compares the first string of a block with an encoded string, in place.
+     *
+     * @param block     the index of the block
+     * @param key       the encoded string
+     * @param keyLength the number of bytes of the encoded string
+     * @return a negative number, zero or a positive number as the first string is
+     *         smaller than, equal to or larger than the other string
+     */
+    private int compareFirst(final int block, final byte[] key, final int keyLength) {
+        int position = (int) data.getLong(indexOffset + 8 * block);
+        int length = 0;
+        for (int shift = 0;; shift += 7) {
+            int b = data.get(position++);
+            length |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                break;
+            }
+        }
+
+        // Encoded bytes compare in the same order as the strings
+        int limit = Math.min(length, keyLength);
+        for (int i = 0; i < limit; i++) {
+            int order = (data.get(position + i) & 0xFF) - (key[i] & 0xFF);
+            if (order != 0) {
+                return order;
+            }
+        }
+        return length - keyLength;
+    }
+
+    /**
+     * Decodes the strings of the buffer in order from a given index.
+     */
+    private final class Cursor {
+
+        /** The decoder reading the blocks. */
+        private final FrontCodedFormat.Decoder decoder;
+        /** The index of the current string. */
+        private int index;
+        /** The current string, or null past the last string. */
+        private String current;
+
+        /**
+         * Create a cursor positioned on a string.
+         *
+         * @param index the index of the string, at most the count
+         */
+        Cursor(final int index) {
+            int block = index / blockSize;
+            ByteBuffer view = data.duplicate();
+            if (block * blockSize < count) {
+                view.position((int) data.getLong(indexOffset + 8 * block));
+            }
+            decoder = new FrontCodedFormat.Decoder(
+                    new DataInputStream(new FrontCodedFormat.BufferInputStream(view)));
+            this.index = block * blockSize - 1;
+            do {
+                advance();
+            } while (this.index < index);
+        }
+
+        /**
+         * Move to the next string.
+         */
+        void advance() {
+            index++;
+            if (index >= count) {
+                current = null;
+                return;
+            }
+            try {
+                current = index % blockSize == 0 ? decoder.first() : decoder.next();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
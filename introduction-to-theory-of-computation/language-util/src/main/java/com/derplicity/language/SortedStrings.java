@@ -0,0 +1,136 @@
+package com.derplicity.language;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.SortedSet;
+
+/**
+ * A read-only sorted set over an array of strings that is already sorted and
+ * free of duplicates.
+ * <p>
+ * Used to hand merged results to {@code TreeSet}'s copy constructor, which
+ * builds its tree from a sorted set in a single linear pass instead of
+ * inserting (and rebalancing) one string at a time.
+ * </p>
+ *
+ * @author Michael Kerl
+ * @version 1.0
+ */
+final class SortedStrings extends AbstractSet<String> implements SortedSet<String> {
+
+    /** The strings, in ascending order without duplicates. */
+    private final String[] strings;
+    /** The index of the first string in this view. */
+    private final int from;
+    /** The index after the last string in this view. */
+    private final int to;
+
+    /**
+     * Create a view of the first strings of an array.
+     *
+     * @param strings the strings, in ascending order without duplicates
+     * @param count   the number of strings of the array to include
+     */
+    SortedStrings(final String[] strings, final int count) {
+        this(strings, 0, count);
+    }
+
+    /**
+     * Create a view of a range of an array.
+     *
+     * @param strings the strings, in ascending order without duplicates
+     * @param from    the index of the first string to include
+     * @param to      the index after the last string to include
+     */
+    private SortedStrings(final String[] strings, final int from, final int to) {
+        this.strings = strings;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    public int size() {
+        return to - from;
+    }
+
+    @Override
+    public boolean contains(final Object o) {
+        return o instanceof String && Arrays.binarySearch(strings, from, to, o) >= 0;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<String>() {
+            private int next = from;
+
+            @Override
+            public boolean hasNext() {
+                return next < to;
+            }
+
+            @Override
+            public String next() {
+                if (next >= to) {
+                    throw new NoSuchElementException();
+                }
+                return strings[next++];
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    @Override
+    public Comparator<? super String> comparator() {
+        return null;
+    }
+
+    @Override
+    public SortedSet<String> subSet(final String fromElement, final String toElement) {
+        return new SortedStrings(strings, indexOf(fromElement), indexOf(toElement));
+    }
+
+    @Override
+    public SortedSet<String> headSet(final String toElement) {
+        return new SortedStrings(strings, from, indexOf(toElement));
+    }
+
+    @Override
+    public SortedSet<String> tailSet(final String fromElement) {
+        return new SortedStrings(strings, indexOf(fromElement), to);
+    }
+
+    @Override
+    public String first() {
+        if (from == to) {
+            throw new NoSuchElementException();
+        }
+        return strings[from];
+    }
+
+    @Override
+    public String last() {
+        if (from == to) {
+            throw new NoSuchElementException();
+        }
+        return strings[to - 1];
+    }
+
+    /**
+     * Finds the index of the first string in this view not smaller than a given
+     * string.
+     *
+     * @param s the string
+     * @return the index, between from and to
+     */
+    private int indexOf(final String s) {
+        int index = Arrays.binarySearch(strings, from, to, s);
+        return index >= 0 ? index : -index - 1;
+    }
+}
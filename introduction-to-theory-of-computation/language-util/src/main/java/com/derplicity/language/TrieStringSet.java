@@ -0,0 +1,375 @@
+package com.derplicity.language;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A set of strings stored in a radix tree, so strings sharing a prefix share the
+ * storage for that prefix.
+ * <p>
+ * Each node holds the characters of the edge leading to it and its children
+ * sorted by the first character of their edges. Iteration is in ascending
+ * {@link String#compareTo} order, the same order as a {@code TreeSet<String>}.
+ * Removing a string only unmarks its node; the tree is not compacted.
+ * </p>
+ *
+ * @author Michael Kerl
+ * @version 1.0
+ */
+final class TrieStringSet extends AbstractSet<String> implements java.io.Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /** No characters. */
+    private static final char[] NO_CHARS = new char[0];
+    /** No children. */
+    private static final Node[] NO_CHILDREN = new Node[0];
+    /** The path to the root. */
+    private static final String EMPTY_PATH = "";
+
+    /** The root, whose edge is empty and which represents the empty string. */
+    private final Node root = new Node(NO_CHARS);
+    /** The number of strings in the set. */
+    private int size;
+    /** The number of structural changes, used to detect concurrent modification. */
+    private transient int modCount;
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(final Object o) {
+        if (!(o instanceof String)) {
+            return false;
+        }
+        Node node = exactNode((String) o);
+        return node != null && node.terminal;
+    }
+
+    @Override
+    public boolean add(final String s) {
+        if (s == null) {
+            throw new NullPointerException();
+        }
+        Node node = root;
+        int position = 0;
+        while (position < s.length()) {
+            int index = node.childIndex(s.charAt(position));
+            if (index < 0) {
+                node.insertChild(-index - 1, new Node(s.substring(position).toCharArray()));
+                node = node.children[-index - 1];
+                position = s.length();
+                break;
+            }
+            Node child = node.children[index];
+            int common = child.commonPrefix(s, position);
+            if (common < child.edge.length) {
+                child = node.split(index, common);
+            }
+            position += common;
+            node = child;
+        }
+        if (node.terminal) {
+            return false;
+        }
+        node.terminal = true;
+        size++;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public boolean remove(final Object o) {
+        if (!(o instanceof String)) {
+            return false;
+        }
+        Node node = exactNode((String) o);
+        if (node == null || !node.terminal) {
+            return false;
+        }
+        node.terminal = false;
+        size--;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        root.children = NO_CHILDREN;
+        root.terminal = false;
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return new TrieIterator(root, EMPTY_PATH);
+    }
+
+    /**
+     * Provides an iterator over the strings in this set starting with a prefix.
+     *
+     * @param prefix the prefix shared by the strings to iterate
+     * @return an iterator over the matching strings in ascending order
+     */
+    Iterator<String> prefixIterator(final String prefix) {
+        Node node = root;
+        int pathBefore = 0;
+        int position = 0;
+        while (position < prefix.length()) {
+            Node child = node.child(prefix.charAt(position));
+            if (child == null) {
+                return new TrieIterator(null, EMPTY_PATH);
+            }
+            // The prefix may end part way along the last edge
+            int common = child.commonPrefix(prefix, position);
+            if (common < child.edge.length && position + common < prefix.length()) {
+                return new TrieIterator(null, EMPTY_PATH);
+            }
+            pathBefore = position;
+            position += child.edge.length;
+            node = child;
+        }
+        return new TrieIterator(node, prefix.substring(0, pathBefore));
+    }
+
+    /**
+     * Finds the node whose path is exactly the given string.
+     *
+     * @param s the string to find
+     * @return the node, or null if there is no such node
+     */
+    private Node exactNode(final String s) {
+        Node node = root;
+        int position = 0;
+        while (position < s.length()) {
+            Node child = node.child(s.charAt(position));
+            if (child == null || !child.matches(s, position)) {
+                return null;
+            }
+            position += child.edge.length;
+            node = child;
+        }
+        return node;
+    }
+
+    /**
+     * A node of the radix tree.
+     */
+    private static final class Node implements java.io.Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        /** The characters on the edge from the parent to this node. */
+        private char[] edge;
+        /** The children, sorted by the first character of their edges. */
+        private Node[] children = NO_CHILDREN;
+        /** Whether the path to this node is a string in the set. */
+        private boolean terminal;
+
+        /**
+         * Create a node with no children.
+         *
+         * @param edge the characters on the edge leading to the node
+         */
+        Node(final char[] edge) {
+            this.edge = edge;
+        }
+
+        /**
+         * Finds the index of the child whose edge starts with a character.
+         *
+         * @param c the first character of the edge
+         * @return the index of the child, or (-(insertion point) - 1) if none
+         */
+        int childIndex(final char c) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                char first = children[middle].edge[0];
+                if (first < c) {
+                    low = middle + 1;
+                } else if (first > c) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -(low + 1);
+        }
+
+        /**
+         * Finds the child whose edge starts with a character.
+         *
+         * @param c the first character of the edge
+         * @return the child, or null if none
+         */
+        Node child(final char c) {
+            int index = childIndex(c);
+            return index < 0 ? null : children[index];
+        }
+
+        /**
+         * Determines if the whole edge appears in a string at a position.
+         *
+         * @param s        the string
+         * @param position the position of the edge in the string
+         * @return true if the string continues with this edge
+         */
+        boolean matches(final String s, final int position) {
+            return commonPrefix(s, position) == edge.length;
+        }
+
+        /**
+         * Counts the characters the edge shares with a string at a position.
+         *
+         * @param s        the string
+         * @param position the position in the string to compare from
+         * @return the length of the common prefix of the edge and the rest of the
+         *         string
+         */
+        int commonPrefix(final String s, final int position) {
+            int limit = Math.min(edge.length, s.length() - position);
+            int i = 0;
+            while (i < limit && edge[i] == s.charAt(position + i)) {
+                i++;
+            }
+            return i;
+        }
+
+        /**
+         * Inserts a child at an index.
+         *
+         * @param index the index keeping the children sorted
+         * @param child the new child
+         */
+        void insertChild(final int index, final Node child) {
+            Node[] grown = new Node[children.length + 1];
+            System.arraycopy(children, 0, grown, 0, index);
+            grown[index] = child;
+            System.arraycopy(children, index, grown, index + 1, children.length - index);
+            children = grown;
+        }
+
+        /**
+         * Splits the edge of a child, inserting a node part way along it.
+         *
+         * @param index  the index of the child to split
+         * @param length the number of characters of the edge before the new node
+         * @return the new node
+         */
+        Node split(final int index, final int length) {
+            Node child = children[index];
+            Node middle = new Node(Arrays.copyOf(child.edge, length));
+            child.edge = Arrays.copyOfRange(child.edge, length, child.edge.length);
+            middle.children = new Node[] {child};
+            children[index] = middle;
+            return middle;
+        }
+    }
+
+    /**
+     * Depth-first iterator over the strings of a subtree, visiting each node
+     * before its children and the children in order.
+     */
+    private final class TrieIterator implements Iterator<String> {
+
+        /** The nodes on the path to the current node. */
+        private Node[] nodes = new Node[16];
+        /** The index of the next child to visit for each node on the path. */
+        private int[] nextChild = new int[16];
+        /** The number of nodes on the path. */
+        private int depth;
+        /** The characters of the path to the current node. */
+        private final StringBuilder path;
+        /** The length of the path before each node's edge. */
+        private int[] pathLength = new int[16];
+        /** The string to be returned next, or null if not yet found. */
+        private String next;
+        /** The string returned last, or null if none or removed. */
+        private String last;
+        /** The modification count the iterator expects. */
+        private int expectedModCount = modCount;
+
+        /**
+         * Create an iterator over the subtree of a node.
+         *
+         * @param start      the root of the subtree, or null for an empty iterator
+         * @param pathBefore the characters of the path before the root's edge
+         */
+        TrieIterator(final Node start, final String pathBefore) {
+            path = new StringBuilder(pathBefore);
+            if (start != null) {
+                push(start);
+                if (start.terminal) {
+                    next = path.toString();
+                }
+            }
+        }
+
+        /**
+         * Makes a node the current node, appending its edge to the path.
+         *
+         * @param node the node to visit
+         */
+        private void push(final Node node) {
+            if (depth == nodes.length) {
+                nodes = Arrays.copyOf(nodes, depth * 2);
+                nextChild = Arrays.copyOf(nextChild, depth * 2);
+                pathLength = Arrays.copyOf(pathLength, depth * 2);
+            }
+            nodes[depth] = node;
+            nextChild[depth] = 0;
+            pathLength[depth] = path.length();
+            path.append(node.edge);
+            depth++;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (expectedModCount != modCount) {
+                throw new ConcurrentModificationException();
+            }
+            while (next == null && depth > 0) {
+                Node node = nodes[depth - 1];
+                if (nextChild[depth - 1] < node.children.length) {
+                    Node child = node.children[nextChild[depth - 1]++];
+                    push(child);
+                    if (child.terminal) {
+                        next = path.toString();
+                    }
+                } else {
+                    depth--;
+                    path.setLength(pathLength[depth]);
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            last = next;
+            next = null;
+            return last;
+        }
+
+        @Override
+        public void remove() {
+            if (last == null) {
+                throw new IllegalStateException();
+            }
+            TrieStringSet.this.remove(last);
+            expectedModCount = modCount;
+            last = null;
+        }
+    }
+}
@@ -0,0 +1,815 @@
+package com.derplicity.language;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.TreeSet;
+/**
+ * Tests for class {@link Language} using the JUnit4 framework.
+ *
+ * @author  Dr. Jody Paul
+ * @version 1.1
+ */
+public class LanguageTest {
+    /** Empty string. */
+    static final String EMPTY_STRING = "";
+    /** Language with no strings. */
+    static final Language EMPTY_LANG = new Language();
+    /** Storages a language can be constructed with. */
+    static final EnumSet<Language.Storage> WRITABLE =
+            EnumSet.of(Language.Storage.TREE_SET, Language.Storage.TRIE,
+                    Language.Storage.CONCURRENT);
+
+    /**
+     * Verify behavior of the isEmpty predicate.
+     */
+    @Test
+    public void isEmptyTest() {
+        assertTrue(EMPTY_LANG.isEmpty());
+        Language lang = new Language();
+        assertTrue(lang.isEmpty());
+        lang.addString(EMPTY_STRING);
+        assertFalse(lang.isEmpty());
+        lang.addString("abba");
+        assertFalse(lang.isEmpty());
+    }
+
+    /**
+     * Verify cardinality report of a language.
+     */
+    @Test
+    public void cardinalityTest() {
+        assertEquals(0, EMPTY_LANG.cardinality());
+        Language lang = new Language();
+        assertEquals(0, lang.cardinality());
+        lang.addString(EMPTY_STRING);
+        assertEquals(1, lang.cardinality());
+        lang.addString("abba");
+        assertEquals(2, lang.cardinality());
+        lang.addString("abba");
+        assertEquals(2, lang.cardinality());
+    }
+
+    /**
+     * Verify check on whether string is in the language.
+     */
+    @Test
+    public void includesTest() {
+        assertFalse(EMPTY_LANG.includes(EMPTY_STRING));
+        assertFalse(EMPTY_LANG.includes("a"));
+        assertFalse(EMPTY_LANG.includes("abba"));
+        Language lang = new Language();
+        lang.addString(EMPTY_STRING);
+        assertTrue(lang.includes(EMPTY_STRING));
+        assertFalse(lang.includes("a"));
+        assertFalse(lang.includes("abba"));
+        lang.addString("abba");
+        assertTrue(lang.includes(EMPTY_STRING));
+        assertFalse(lang.includes("a"));
+        assertTrue(lang.includes("abba"));
+        lang.addString("a");
+        assertTrue(lang.includes(EMPTY_STRING));
+        assertTrue(lang.includes("a"));
+        assertTrue(lang.includes("abba"));
+        assertFalse(lang.includes("b"));
+        ArrayList<String> stringsToAdd = new ArrayList<>();
+        stringsToAdd.add("z");
+        stringsToAdd.add("za");
+        stringsToAdd.add("zaa");
+        lang.addAllStrings(stringsToAdd);
+        assertTrue(lang.includes("a"));
+        assertTrue(lang.includes("abba"));
+        assertTrue(lang.includes("z"));
+        assertTrue(lang.includes("za"));
+        assertTrue(lang.includes("zaa"));
+        assertFalse(lang.includes("c"));
+    }
+
+    /**
+     * Verify behavior of iterator over empty language.
+     */
+    @Test
+    public void iteratorEmptyLanguageTest() {
+        assertNotNull(EMPTY_LANG.iterator());
+        assertFalse(EMPTY_LANG.iterator().hasNext());
+    }
+
+    /**
+     * Verify behavior of iterator over language with cardinality 1.
+     */
+    @Test
+    public void iteratorSizeOneTest() {
+        Language lang = new Language();
+        lang.addString("abba");
+        Iterator<String> lit = lang.iterator();
+        assertTrue(lit.hasNext());
+        assertEquals("abba", lit.next());
+        assertFalse(lit.hasNext());
+    }
+
+    /**
+     * Verify behavior of iterator over language with cardinality 2,
+     * including items inserted in either order.
+     */
+    @Test
+    public void iteratorSizeTwoTest() {
+        Language lang = new Language();
+        lang.addString("abba");
+        Iterator<String> lit = lang.iterator();
+        assertTrue(lit.hasNext());
+        assertEquals("abba", lit.next());
+        assertFalse(lit.hasNext());
+        lang.addString("a");
+        lit = lang.iterator();
+        assertTrue(lit.hasNext());
+        assertEquals("a", lit.next());
+        assertTrue(lit.hasNext());
+        assertEquals("abba", lit.next());
+        assertFalse(lit.hasNext());
+        lang = new Language();
+        lang.addString("a");
+        lit = lang.iterator();
+        assertTrue(lit.hasNext());
+        assertEquals("a", lit.next());
+        assertFalse(lit.hasNext());
+        lang.addString("abba");
+        lit = lang.iterator();
+        assertTrue(lit.hasNext());
+        assertEquals("a", lit.next());
+        assertTrue(lit.hasNext());
+        assertEquals("abba", lit.next());
+        assertFalse(lit.hasNext());
+    }
+
+    /**
+     * Verify behavior of iterator over language arbitrary strings.
+     */
+    @Test
+    public void iteratorTest() {
+        Language lang = new Language();
+        lang.addString("abba");
+        lang.addString("a");
+        lang.addString(EMPTY_STRING);
+        lang.addString("b");
+        Iterator<String> lit = lang.iterator();
+        assertTrue(lit.hasNext());
+        assertEquals(EMPTY_STRING, lit.next());
+        assertTrue(lit.hasNext());
+        assertEquals("a", lit.next());
+        assertTrue(lit.hasNext());
+        assertEquals("abba", lit.next());
+        assertTrue(lit.hasNext());
+        assertEquals("b", lit.next());
+        assertFalse(lit.hasNext());
+    }
+
+    /**
+     * Verify iterable interface using enhanced for.
+     */
+    @Test
+    public void iteratableTest() {
+        Language lang = new Language();
+        lang.addString("abba");
+        lang.addString("a");
+        lang.addString(EMPTY_STRING);
+        lang.addString("b");
+        String allTogether = "";
+        for (String s : lang) {
+            allTogether += s + ",";
+        }
+        assertEquals(",a,abba,b,", allTogether);
+    }
+
+
+    /**
+     * Verify concatenation of two empty languages.
+     */
+    @Test
+    public void concatenateBothEmptyTest() {
+        Language lang = new Language();
+        Language concatLang = lang.concatenate(EMPTY_LANG);
+        assertEquals(0, concatLang.cardinality());
+    }
+
+    /**
+     * Verify concatenation with an empty language.
+     */
+    @Test
+    public void concatenateWithEmptyTest() {
+        Language lang = new Language();
+        lang.addString("abcd");
+        Language concatLang = lang.concatenate(EMPTY_LANG);
+        assertEquals(0, concatLang.cardinality());
+        concatLang = EMPTY_LANG.concatenate(lang);
+        assertEquals(0, concatLang.cardinality());
+    }
+
+    /**
+     * Verify concatenation two two non-empty languages.
+     */
+    @Test
+    public void concatenateNonEmptyTest() {
+        Language lang1 = new Language();
+        lang1.addString("a");
+        Language lang2 = new Language();
+        lang2.addString("x");
+        Language concatLang = lang1.concatenate(lang2);
+        assertEquals(1, concatLang.cardinality());
+        assertTrue(concatLang.includes("ax"));
+        concatLang = lang2.concatenate(lang1);
+        assertEquals(1, concatLang.cardinality());
+        assertTrue(concatLang.includes("xa"));
+        lang1.addString("b");
+        lang1.addString("aba");
+        // lang1 is {"a" "aba" "b"}
+        concatLang = lang1.concatenate(lang2);
+        assertEquals(3, concatLang.cardinality());
+        assertTrue(concatLang.includes("ax"));
+        assertTrue(concatLang.includes("bx"));
+        assertTrue(concatLang.includes("abax"));
+        lang2.addString("y");
+        // lang2 is {"x" "y"}
+        concatLang = lang1.concatenate(lang2);
+        assertEquals(6, concatLang.cardinality());
+        assertTrue(concatLang.includes("ax"));
+        assertTrue(concatLang.includes("bx"));
+        assertTrue(concatLang.includes("abax"));
+        assertTrue(concatLang.includes("ay"));
+        assertTrue(concatLang.includes("by"));
+        assertTrue(concatLang.includes("abay"));
+        lang1.addString(EMPTY_STRING);
+        // lang1 is {"" "a" "aba" "b"}
+        concatLang = lang1.concatenate(lang2);
+        assertEquals(8, concatLang.cardinality());
+        assertTrue(concatLang.includes("x"));
+        assertTrue(concatLang.includes("y"));
+    }
+
+    /**
+     * Verify a trie-backed language behaves like a tree-backed one.
+     */
+    @Test
+    public void trieStorageTest() {
+        Language tree = new Language();
+        Language trie = new Language(Language.Storage.TRIE);
+        assertEquals(Language.Storage.TRIE, trie.storage());
+        for (String s : Arrays.asList("abba", "ab", EMPTY_STRING, "abc", "b", "abb", "ab", "ba")) {
+            assertEquals(tree.addString(s), trie.addString(s));
+        }
+        assertEquals(tree.cardinality(), trie.cardinality());
+        assertEquals(tree, trie);
+        assertEquals(tree.hashCode(), trie.hashCode());
+        assertTrue(trie.includes(EMPTY_STRING));
+        assertTrue(trie.includes("abb"));
+        assertFalse(trie.includes("a"));
+        assertFalse(trie.includes("abbac"));
+
+        Iterator<String> treeIterator = tree.iterator();
+        for (String s : trie) {
+            assertEquals(treeIterator.next(), s);
+        }
+        assertFalse(treeIterator.hasNext());
+
+        Iterator<String> lit = trie.iterator();
+        lit.next();
+        lit.remove();
+        assertFalse(trie.includes(EMPTY_STRING));
+        assertEquals(6, trie.cardinality());
+    }
+
+    /**
+     * Verify iteration over the strings starting with a prefix.
+     */
+    @Test
+    public void prefixIteratorTest() {
+        for (Language.Storage storage : WRITABLE) {
+            Language lang = new Language(storage);
+            lang.addAllStrings(Arrays.asList(EMPTY_STRING, "a", "ab", "abc", "abd", "b", "ba"));
+            ArrayList<String> matches = new ArrayList<>();
+            for (Iterator<String> it = lang.prefixIterator("ab"); it.hasNext();) {
+                matches.add(it.next());
+            }
+            assertEquals(Arrays.asList("ab", "abc", "abd"), matches);
+            assertEquals(7, count(lang.prefixIterator(EMPTY_STRING)));
+            assertEquals(0, count(lang.prefixIterator("c")));
+            assertEquals(0, count(lang.prefixIterator("abcd")));
+            lang.addString("xyz");
+            assertEquals(1, count(lang.prefixIterator("xy")));
+        }
+    }
+
+    /**
+     * Count the strings left in an iterator.
+     *
+     * @param it the iterator
+     * @return the number of strings
+     */
+    private static int count(final Iterator<String> it) {
+        int count = 0;
+        while (it.hasNext()) {
+            it.next();
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Verify languages survive the binary form and serialization.
+     */
+    @Test
+    public void binaryFormTest() throws Exception {
+        Language lang = new Language();
+        lang.addString(EMPTY_STRING);
+        for (int i = 0; i < 1000; i++) {
+            lang.addString("w" + Integer.toString(i * 31, 2));
+        }
+        lang.addString("\u0000\u00e9\u20ac\ud800");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        lang.writeTo(bytes);
+        assertEquals(lang, Language.readFrom(new ByteArrayInputStream(bytes.toByteArray())));
+
+        ByteBuffer buffer = ByteBuffer.allocate(bytes.size());
+        lang.writeTo(buffer);
+        buffer.flip();
+        assertEquals(lang, Language.readFrom(buffer));
+        assertEquals(EMPTY_LANG, roundTrip(EMPTY_LANG));
+
+        Language trie = new Language(Language.Storage.TRIE);
+        trie.addAllStrings(Arrays.asList("a", "ab", "b"));
+        Language copy = roundTrip(trie);
+        assertEquals(trie, copy);
+        assertEquals(Language.Storage.TRIE, copy.storage());
+    }
+
+    /**
+     * Verify a mapped language answers queries from its file.
+     */
+    @Test
+    public void mapTest() throws Exception {
+        Language lang = new Language();
+        for (int i = 0; i < 1000; i++) {
+            lang.addString(Integer.toString(i * 7, 3));
+        }
+        Path file = Files.createTempFile("language", ".bin");
+        try {
+            lang.writeTo(file);
+            assertEquals(lang, Language.readFrom(file));
+
+            Language mapped = Language.map(file);
+            assertEquals(Language.Storage.MAPPED, mapped.storage());
+            assertEquals(lang.cardinality(), mapped.cardinality());
+            assertEquals(lang, mapped);
+            Iterator<String> expected = lang.iterator();
+            for (String s : mapped) {
+                assertEquals(expected.next(), s);
+            }
+            assertFalse(expected.hasNext());
+            for (int i = 0; i < 7000; i++) {
+                String s = Integer.toString(i, 3);
+                assertEquals(lang.includes(s), mapped.includes(s));
+            }
+            assertFalse(mapped.includes(null));
+            assertEquals(count(lang.prefixIterator("12")), count(mapped.prefixIterator("12")));
+            assertEquals(lang.union(lang), mapped.union(mapped));
+            assertEquals(Language.Storage.TREE_SET, mapped.union(mapped).storage());
+            try {
+                mapped.addString("x");
+                fail("mapped languages are read-only");
+            } catch (UnsupportedOperationException e) {
+                assertFalse(mapped.includes("x"));
+            }
+
+            Language copy = roundTrip(mapped);
+            assertEquals(lang, copy);
+            assertEquals(Language.Storage.TREE_SET, copy.storage());
+            assertTrue(copy.addString("x"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Serialize and deserialize a language.
+     *
+     * @param lang the language
+     * @return the copy read back
+     */
+    private static Language roundTrip(final Language lang) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(lang);
+            out.writeObject("after");
+        }
+        try (ObjectInputStream in = new ObjectInputStream(
+                new ByteArrayInputStream(bytes.toByteArray()))) {
+            Language copy = (Language) in.readObject();
+            assertEquals("after", in.readObject());
+            return copy;
+        }
+    }
+
+    /**
+     * Verify the cached hash code follows every change to a language.
+     */
+    @Test
+    public void cachedHashCodeTest() {
+        for (Language.Storage storage : WRITABLE) {
+            Language lang = new Language(storage);
+            TreeSet<String> expected = new TreeSet<>();
+            assertEquals(Objects.hash(expected), lang.hashCode());
+            lang.addAllStrings(Arrays.asList("a", "bb", "ccc"));
+            expected.addAll(Arrays.asList("a", "bb", "ccc"));
+            assertEquals(Objects.hash(expected), lang.hashCode());
+            lang.addString("dd");
+            lang.addString("a");
+            lang.addAllStrings(Arrays.asList("a", "e"));
+            expected.addAll(Arrays.asList("dd", "e"));
+            assertEquals(Objects.hash(expected), lang.hashCode());
+            for (Iterator<String> it = lang.iterator(); it.hasNext();) {
+                if (it.next().length() == 2) {
+                    it.remove();
+                }
+            }
+            expected.removeAll(Arrays.asList("bb", "dd"));
+            assertEquals(Objects.hash(expected), lang.hashCode());
+            assertEquals(Objects.hash(expected), lang.union(EMPTY_LANG).hashCode());
+
+            Language other = new Language();
+            other.addAllStrings(expected);
+            assertEquals(lang, other);
+            other.addString("f");
+            assertFalse(lang.equals(other));
+        }
+    }
+
+    /**
+     * Verify a Bloom filter changes no answers and counts them.
+     */
+    @Test
+    public void bloomFilterTest() {
+        Language lang = new Language();
+        lang.addString("x");
+        assertNull(lang.bloomFilter());
+        BloomFilter filter = lang.enableBloomFilter(2000, 0.01);
+        assertEquals(filter, lang.bloomFilter());
+        for (int i = 0; i < 1000; i++) {
+            lang.addString("in" + i);
+        }
+        lang.addAllStrings(Arrays.asList("y", "z"));
+        assertTrue(lang.includes("x"));
+        assertTrue(lang.includes("z"));
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(lang.includes("in" + i));
+            assertFalse(lang.includes("out" + i));
+        }
+        assertFalse(lang.includes(null));
+        assertEquals(1002, filter.hits() - filter.falsePositives());
+        assertEquals(1000, filter.misses() + filter.falsePositives());
+        assertTrue(filter.misses() > 900);
+        assertTrue(filter.falsePositiveRate() < filter.targetFalsePositiveRate());
+
+        lang.disableBloomFilter();
+        assertNull(lang.bloomFilter());
+        assertTrue(lang.includes("in7"));
+    }
+
+    /**
+     * Verify adding many strings at once merges them into the language.
+     */
+    @Test
+    public void bulkAddTest() {
+        Language lang = new Language();
+        lang.enableBloomFilter(1000, 0.01);
+        TreeSet<String> expected = new TreeSet<>();
+        ArrayList<String> batch = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            batch.add(Integer.toString(i * 37 % 400, 5));
+        }
+        assertTrue(lang.addAllStrings(batch));
+        expected.addAll(batch);
+        assertEquals(expected.size(), lang.cardinality());
+
+        batch.clear();
+        for (int i = 0; i < 300; i++) {
+            batch.add(Integer.toString(i * 3, 5));
+        }
+        assertTrue(lang.addAllStrings(batch));
+        expected.addAll(batch);
+        assertFalse(lang.addAllStrings(batch));
+
+        assertEquals(expected.size(), lang.cardinality());
+        assertEquals(Objects.hash(expected), lang.hashCode());
+        Iterator<String> it = lang.iterator();
+        for (String s : expected) {
+            assertEquals(s, it.next());
+            assertTrue(lang.includes(s));
+        }
+        assertFalse(it.hasNext());
+    }
+
+    /**
+     * Verify many threads can add to and search a concurrent language at once.
+     */
+    @Test
+    public void concurrentTest() throws Exception {
+        final Language lang = new Language(Language.Storage.CONCURRENT);
+        final int threads = 4;
+        final int perThread = 2000;
+        Thread[] writers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int offset = t;
+            writers[t] = new Thread() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < perThread; i++) {
+                        lang.addString(Integer.toString(i * threads + offset));
+                        lang.includes(Integer.toString(i));
+                    }
+                }
+            };
+            writers[t].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        TreeSet<String> expected = new TreeSet<>();
+        for (int i = 0; i < threads * perThread; i++) {
+            expected.add(Integer.toString(i));
+        }
+        assertEquals(expected.size(), lang.cardinality());
+        assertEquals(Objects.hash(expected), lang.hashCode());
+        assertEquals(new ArrayList<>(expected), toList(lang));
+        assertEquals(Language.Storage.CONCURRENT, lang.union(EMPTY_LANG).storage());
+    }
+
+    /**
+     * Verify a concurrent language can be written while other threads add to it.
+     */
+    @Test
+    public void concurrentWriteTest() throws Exception {
+        final Language lang = new Language(Language.Storage.CONCURRENT);
+        final int threads = 2;
+        final int perThread = 20000;
+        Thread[] writers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int offset = t;
+            writers[t] = new Thread() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < perThread; i++) {
+                        lang.addString(Integer.toString(i * threads + offset));
+                    }
+                }
+            };
+            writers[t].start();
+        }
+
+        int previous = 0;
+        boolean writing = true;
+        while (writing) {
+            writing = writers[0].isAlive() || writers[1].isAlive();
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            lang.writeTo(bytes);
+            Language read = Language.readFrom(new ByteArrayInputStream(bytes.toByteArray()));
+            assertTrue(read.cardinality() >= previous);
+            previous = read.cardinality();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        assertEquals(threads * perThread, previous);
+    }
+
+    /**
+     * Collect the strings of a language in iteration order.
+     *
+     * @param lang the language
+     * @return the strings
+     */
+    private static ArrayList<String> toList(final Language lang) {
+        ArrayList<String> list = new ArrayList<>();
+        for (String s : lang) {
+            list.add(s);
+        }
+        return list;
+    }
+
+    /**
+     * Verify bounded concatenation and membership without concatenating.
+     */
+    @Test
+    public void boundedConcatenateTest() {
+        Language lang1 = new Language();
+        Language lang2 = new Language();
+        for (int i = 0; i < 200; i++) {
+            lang1.addString(Integer.toString(i * 13, 2));
+            lang2.addString(Integer.toString(i, 4));
+        }
+        lang2.addString(EMPTY_STRING);
+        Language full = lang1.concatenate(lang2);
+
+        Language expected = new Language();
+        Language expectedOdd = new Language();
+        for (String s : full) {
+            if (s.length() >= 5 && s.length() <= 9) {
+                expected.addString(s);
+                if (s.endsWith("1")) {
+                    expectedOdd.addString(s);
+                }
+            }
+        }
+        assertEquals(expected, lang1.concatenate(lang2, 5, 9));
+        assertEquals(expectedOdd, lang1.concatenate(lang2, 5, 9, new Language.StringPredicate() {
+            @Override
+            public boolean test(final String s) {
+                return s.endsWith("1");
+            }
+        }));
+        assertTrue(lang1.concatenate(lang2, 9, 5).isEmpty());
+        assertEquals(full, lang1.concatenate(lang2, 0, Integer.MAX_VALUE));
+
+        for (int i = 0; i < 3000; i++) {
+            String s = Integer.toString(i * 7, 2);
+            assertEquals(full.includes(s), lang1.concatenationIncludes(lang2, s));
+        }
+        assertFalse(lang1.concatenationIncludes(lang2, null));
+    }
+
+    /**
+     * Verify the parallel concatenation matches the sequential one.
+     */
+    @Test
+    public void concatenateParallelTest() {
+        Language lang1 = new Language();
+        Language lang2 = new Language();
+        for (int i = 0; i < 300; i++) {
+            lang1.addString(Integer.toString(i, 3));
+            lang2.addString(Integer.toString(i * 7, 2));
+        }
+        lang2.addString(EMPTY_STRING);
+        assertEquals(lang1.concatenate(lang2), lang1.concatenateParallel(lang2));
+        assertEquals(lang2.concatenate(lang1), lang2.concatenateParallel(lang1));
+        assertEquals(0, lang1.concatenateParallel(EMPTY_LANG).cardinality());
+        assertEquals(0, EMPTY_LANG.concatenateParallel(lang1).cardinality());
+    }
+
+    /**
+     * Verify the lazy concatenation matches the eager one, in order.
+     */
+    @Test
+    public void lazyConcatenateTest() {
+        Language lang1 = new Language();
+        lang1.addAllStrings(Arrays.asList("", "a", "ab", "abc", "b", "ba"));
+        Language lang2 = new Language();
+        lang2.addAllStrings(Arrays.asList("", "a", "bc", "c"));
+        Language lang3 = new Language();
+        lang3.addAllStrings(Arrays.asList("b", "cab"));
+
+        LanguageConcatenation lazy = lang1.lazyConcatenate(lang2);
+        assertEquals(lang1.concatenate(lang2), lazy.toLanguage());
+        ArrayList<String> ordered = new ArrayList<>();
+        for (String s : lazy) {
+            ordered.add(s);
+        }
+        assertEquals(new ArrayList<>(new TreeSet<>(ordered)), ordered);
+
+        LanguageConcatenation chained = lazy.concatenate(lang3);
+        Language eager = lang1.concatenate(lang2).concatenate(lang3);
+        assertEquals(eager, chained.toLanguage());
+        for (String s : eager) {
+            assertTrue(chained.includes(s));
+        }
+        assertFalse(chained.includes("a"));
+        assertFalse(chained.includes(null));
+        assertTrue(lazy.includes(EMPTY_STRING));
+
+        assertTrue(lang1.lazyConcatenate(EMPTY_LANG).isEmpty());
+        assertFalse(EMPTY_LANG.lazyConcatenate(lang1).iterator().hasNext());
+    }
+
+    /**
+     * Verify the compiled automaton accepts exactly the strings of the language,
+     * including when chained.
+     */
+    @Test
+    public void compileTest() {
+        LanguageAutomaton emptyAutomaton = EMPTY_LANG.compile();
+        assertEquals(0, emptyAutomaton.cardinality());
+        assertFalse(emptyAutomaton.includes(EMPTY_STRING));
+
+        Language lang1 = new Language();
+        lang1.addAllStrings(Arrays.asList(EMPTY_STRING, "ab", "abab", "b", "bab", "cab"));
+        LanguageAutomaton automaton = lang1.compile();
+        assertEquals(6, automaton.cardinality());
+        assertEquals(lang1, automaton.toLanguage());
+        assertTrue(automaton.includes(EMPTY_STRING));
+        assertTrue(automaton.includes("bab"));
+        assertFalse(automaton.includes("ba"));
+        assertFalse(automaton.includes("abc"));
+        assertFalse(automaton.includes(null));
+
+        Language lang2 = new Language();
+        lang2.addAllStrings(Arrays.asList("a", "ba"));
+        LanguageAutomaton chained = automaton.concatenate(lang2.compile());
+        Language expected = lang1.concatenate(lang2);
+        assertEquals(expected.cardinality(), chained.cardinality());
+        assertEquals(expected, chained.toLanguage());
+        for (String s : expected) {
+            assertTrue(chained.includes(s));
+        }
+        assertFalse(chained.includes("ab"));
+        assertFalse(chained.includes(EMPTY_STRING));
+    }
+
+    /**
+     * Verify union, intersection and difference.
+     */
+    @Test
+    public void setOperationsTest() {
+        for (Language.Storage storage : WRITABLE) {
+            Language lang1 = new Language(storage);
+            lang1.addAllStrings(Arrays.asList(EMPTY_STRING, "a", "ab", "b"));
+            Language lang2 = new Language();
+            lang2.addAllStrings(Arrays.asList("ab", "b", "ba"));
+
+            Language expected = new Language();
+            expected.addAllStrings(Arrays.asList(EMPTY_STRING, "a", "ab", "b", "ba"));
+            assertEquals(expected, lang1.union(lang2));
+            assertEquals(expected, lang2.union(lang1));
+            assertEquals(storage, lang1.union(lang2).storage());
+            assertEquals(lang1, lang1.union(EMPTY_LANG));
+
+            expected = new Language();
+            expected.addAllStrings(Arrays.asList("ab", "b"));
+            assertEquals(expected, lang1.intersection(lang2));
+            assertEquals(EMPTY_LANG, lang1.intersection(EMPTY_LANG));
+
+            expected = new Language();
+            expected.addAllStrings(Arrays.asList(EMPTY_STRING, "a"));
+            assertEquals(expected, lang1.difference(lang2));
+            assertEquals(lang1, lang1.difference(EMPTY_LANG));
+            assertEquals(EMPTY_LANG, EMPTY_LANG.difference(lang1));
+        }
+    }
+
+    /**
+     * Verify powers and the bounded Kleene star.
+     */
+    @Test
+    public void powerAndStarTest() {
+        Language lang = new Language();
+        lang.addAllStrings(Arrays.asList("a", "bb"));
+        Language expected = new Language();
+        expected.addString(EMPTY_STRING);
+        assertEquals(expected, lang.power(0));
+        assertEquals(lang, lang.power(1));
+        assertEquals(lang.concatenate(lang).concatenate(lang), lang.power(3));
+        assertEquals(EMPTY_LANG, EMPTY_LANG.power(2));
+
+        Language star = lang.star(2);
+        assertEquals(expected.union(lang).union(lang.power(2)), star);
+        assertEquals(7, star.cardinality());
+        assertEquals(expected, EMPTY_LANG.star(3));
+
+        lang.addString(EMPTY_STRING);
+        assertEquals(lang.power(4), lang.star(4));
+    }
+
+    /** Verify the overridden equality predicate. */
+    @Test
+    public void equalsTest() {
+        assertTrue(EMPTY_LANG.equals(EMPTY_LANG));
+        Language lang1 = new Language();
+        assertTrue(EMPTY_LANG.equals(lang1));
+        assertTrue(lang1.equals(EMPTY_LANG));
+        assertEquals(EMPTY_LANG, lang1);
+        Language lang2 = new Language();
+        assertTrue(lang1.equals(lang2));
+        assertEquals(lang1, lang2);
+        lang2.addString("ab");
+        assertFalse(lang1.equals(lang2));
+        lang1.addString("ab");
+        assertTrue(lang1.equals(lang2));
+        assertTrue(lang2.equals(lang1));
+        assertEquals(lang1, lang2);
+    }
+}